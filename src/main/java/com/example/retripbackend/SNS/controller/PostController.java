@@ -1,6 +1,8 @@
 package com.example.retripbackend.SNS.controller;
 
+import com.example.retripbackend.SNS.dto.FeedPage;
 import com.example.retripbackend.SNS.entity.Comment;
+import com.example.retripbackend.SNS.dto.PostSummary;
 import com.example.retripbackend.SNS.entity.Post;
 import com.example.retripbackend.SNS.entity.PostImage;
 import com.example.retripbackend.SNS.entity.Travel;
@@ -8,7 +10,9 @@ import com.example.retripbackend.SNS.service.CommentService;
 import com.example.retripbackend.SNS.service.FileStorageService;
 import com.example.retripbackend.SNS.service.PostLikeService;
 import com.example.retripbackend.SNS.service.PostService;
+import com.example.retripbackend.SNS.service.TimelineService;
 import com.example.retripbackend.SNS.service.TravelService;
+import com.example.retripbackend.receipt.dto.TravelLedgerSummary;
 import com.example.retripbackend.receipt.entity.Receipt;
 import com.example.retripbackend.receipt.service.ReceiptService;
 import com.example.retripbackend.user.entity.User;
@@ -21,7 +25,6 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -36,6 +39,7 @@ public class    PostController {
     private final PostService postService;
     private final CommentService commentService;
     private final PostLikeService postLikeService;
+    private final TimelineService timelineService;
     private final TravelService travelService;
     private final FileStorageService fileStorageService;
     private final ReceiptService receiptService;
@@ -50,21 +54,31 @@ public class    PostController {
 
     @GetMapping("/home")
     public String feed(@RequestParam(defaultValue = "latest") String sort,
-        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(required = false) String cursor,
         @AuthenticationPrincipal CustomUserDetailsService.CustomUserDetails userDetails,
         Model model) {
-        Page<Post> posts = "recommend".equals(sort)
-            ? postService.getRecommendedPosts(page, 10)
-            : postService.getLatestPosts(page, 10);
+        User currentUser = (userDetails != null) ? userDetails.getUser() : null;
+
+        // 팔로잉 피드는 로그인 필요
+        if ("following".equals(sort) && currentUser == null) {
+            return "redirect:/login";
+        }
+
+        // 커서 기반 페이지네이션 (cursor가 없으면 첫 페이지)
+        FeedPage<PostSummary> posts = switch (sort) {
+            case "recommend" -> postService.getRecommendedFeed(cursor, 10);
+            case "following" -> timelineService.getFollowingFeed(currentUser, cursor, 10);
+            default -> postService.getLatestFeed(cursor, 10);
+        };
 
         model.addAttribute("posts", posts);
         model.addAttribute("sort", sort);
 
-        // 좋아요 상태 확인을 위해 postLikeService를 모델에 전달 (HTML에서 사용)
-        if (userDetails != null) {
-            model.addAttribute("currentUser", userDetails.getUser());
-            model.addAttribute("postLikeService", postLikeService);
+        // 좋아요 상태는 페이지 단위로 한 번에 조회 (게시글마다 쿼리하지 않음)
+        if (currentUser != null) {
+            model.addAttribute("currentUser", currentUser);
         }
+        model.addAttribute("likedPostIds", postLikeService.getLikedPostIds(currentUser, posts.getContent()));
 
         return "home";
     }
@@ -74,17 +88,12 @@ public class    PostController {
         if (userDetails == null) return "redirect:/login";
         List<Travel> travels = travelService.getUserTravels(userDetails.getUser());
         
-        // Travel과 통화 정보를 함께 담는 리스트 생성
+        // Travel과 통화 정보를 함께 담는 리스트 생성 (여행별 영수증 집계 쿼리 한 번)
+        Map<Long, TravelLedgerSummary> ledgers = receiptService.getLedgerSummaries(userDetails.getUser());
         List<TravelWithCurrency> travelsWithCurrency = travels.stream()
             .map(travel -> {
-                // 해당 travel의 첫 번째 receipt의 통화 가져오기
-                List<Receipt> receipts = receiptService.getReceiptsByTravel(travel);
-                String currency = receipts.stream()
-                    .filter(r -> r.getCurrency() != null && !r.getCurrency().isEmpty())
-                    .map(Receipt::getCurrency)
-                    .findFirst()
-                    .orElse("KRW"); // 기본값
-                
+                TravelLedgerSummary ledger = ledgers.get(travel.getTravelId());
+                String currency = ledger != null && ledger.currency() != null ? ledger.currency() : "KRW"; // 기본값
                 return new TravelWithCurrency(travel, currency);
             })
             .collect(Collectors.toList());
@@ -197,7 +206,7 @@ public class    PostController {
     public String content(@AuthenticationPrincipal CustomUserDetailsService.CustomUserDetails userDetails,
         @PathVariable Long postId, Model model) {
         User currentUser = (userDetails != null) ? userDetails.getUser() : null;
-        Post post = postService.getPostById(postId);
+        Post post = postService.getPostForView(postId);
         List<Comment> comments = commentService.getPostComments(post);
         List<com.example.retripbackend.SNS.entity.PostImage> images = postService.getPostImages(post);
 
@@ -293,16 +302,9 @@ public class    PostController {
         @PathVariable Long postId) {
         if (userDetails == null) return "fail";
 
-        User user = userDetails.getUser();
-        Post post = postService.getPostById(postId);
-
-        if (postLikeService.isLiked(post, user)) {
-            postLikeService.unlike(post, user);
-            return "unliked"; // 취소 성공 응답
-        } else {
-            postLikeService.like(post, user);
-            return "liked"; // 추가 성공 응답
-        }
+        // 게시글을 로딩하지 않고 좋아요 행 추가/삭제 + 좋아요 수 원자적 증감으로 처리
+        boolean liked = postLikeService.toggleLike(postId, userDetails.getUser());
+        return liked ? "liked" : "unliked"; // 추가 / 취소 성공 응답
     }
     
     // Travel과 통화 정보를 함께 담는 내부 클래스
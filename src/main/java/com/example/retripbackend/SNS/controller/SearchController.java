@@ -1,10 +1,15 @@
 package com.example.retripbackend.SNS.controller;
 
-import com.example.retripbackend.SNS.entity.Post;
+import com.example.retripbackend.SNS.dto.FeedPage;
+import com.example.retripbackend.SNS.dto.PostSummary;
+import com.example.retripbackend.SNS.service.PostLikeService;
 import com.example.retripbackend.SNS.service.PostService;
+import com.example.retripbackend.user.entity.User;
+import com.example.retripbackend.user.service.CustomUserDetailsService;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,22 +20,26 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class SearchController {
 
     private final PostService postService;
+    private final PostLikeService postLikeService;
 
     // Explore 메인 화면
     @GetMapping("/explore")
     public String explorePage(@RequestParam(defaultValue = "latest") String sort,
-        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(required = false) String cursor,
+        @AuthenticationPrincipal CustomUserDetailsService.CustomUserDetails userDetails,
         Model model) {
-        Page<Post> posts;
+        FeedPage<PostSummary> posts;
 
+        // 커서 기반 페이지네이션 (cursor가 없으면 첫 페이지)
         if ("recommend".equals(sort)) {
-            posts = postService.getRecommendedPosts(page, 10);
+            posts = postService.getRecommendedFeed(cursor, 10);
         } else {
-            posts = postService.getLatestPosts(page, 10);
+            posts = postService.getLatestFeed(cursor, 10);
         }
 
         model.addAttribute("posts", posts);
         model.addAttribute("sort", sort);
+        model.addAttribute("likedPostIds", postLikeService.getLikedPostIds(currentUser(userDetails), posts.getContent()));
 
         return "search/explore";
     }
@@ -48,15 +57,23 @@ public class SearchController {
     @GetMapping("/search/results")
     public String searchResults(@RequestParam String keyword,
         @RequestParam(defaultValue = "0") int page,
+        @AuthenticationPrincipal CustomUserDetailsService.CustomUserDetails userDetails,
         Model model) {
         if (keyword == null || keyword.isBlank()) {
             return "redirect:/search";
         }
 
-        Page<Post> posts = postService.searchPostsByCity(keyword, page, 10);
+        // 목록은 COUNT 없는 Slice, 검색 결과 수는 캐시된 근사치 사용
+        Slice<PostSummary> posts = postService.searchPostsByCity(keyword, page, 10);
         model.addAttribute("keyword", keyword);
         model.addAttribute("posts", posts);
+        model.addAttribute("approxTotal", postService.getApproximatePostCountByCity(keyword));
+        model.addAttribute("likedPostIds", postLikeService.getLikedPostIds(currentUser(userDetails), posts.getContent()));
 
         return "search/results";
     }
+
+    private User currentUser(CustomUserDetailsService.CustomUserDetails userDetails) {
+        return (userDetails != null) ? userDetails.getUser() : null;
+    }
 }
\ No newline at end of file
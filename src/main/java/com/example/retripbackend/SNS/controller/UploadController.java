@@ -0,0 +1,246 @@
+package com.example.retripbackend.SNS.controller;
+
+import com.example.retripbackend.SNS.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * 업로드 파일 전용 응답
+ * 업로드 파일명(UUID / SHA-256 및 그 크기별 변형)은 내용이 바뀌지 않으므로 1년 immutable 캐시로 내려보내
+ * 브라우저/CDN의 재요청이 애플리케이션까지 오지 않도록 한다.
+ * 변형 생성에 실패해 원본을 대신 내려보내는 경우는 잠시 뒤 변형이 생길 수 있으므로 캐시하지 않음(no-cache)
+ * - 강한 ETag + If-None-Match / If-Modified-Since 에 304 응답
+ * - 단일 byte range 요청(206, If-Range 포함) 지원
+ * - Tomcat sendfile 을 지원하면 커널 zero-copy 전송, 아니면 FileChannel.transferTo 로 전송
+ * 예전 평면 URL의 파일은 샤딩 마이그레이션(UploadShardMigrator)이 응답 도중 옮길 수 있으므로,
+ * 찾은 파일이 사라졌으면 다시 찾아 옮겨진 위치에서 읽는다.
+ */
+@Controller
+@RequiredArgsConstructor
+public class UploadController {
+
+    private static final String URL_PREFIX = "/uploads/";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "public, max-age=86400";
+    private static final String NO_CACHE = "no-cache";
+
+    // 이름이 곧 내용 식별자인 파일 (UUID 또는 SHA-256, 변형은 뒤에 .w<너비>.jpg)
+    private static final Pattern CONTENT_NAMED = Pattern.compile(
+        "^([0-9a-f]{64}|[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})(\\.[^/]*)?$");
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final FileStorageService fileStorageService;
+
+    @GetMapping("/uploads/**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String uri = URLDecoder.decode(request.getRequestURI(), StandardCharsets.UTF_8);
+        String relativePath = uri.substring(uri.indexOf(URL_PREFIX) + URL_PREFIX.length());
+
+        Optional<Path> found = fileStorageService.findUploadedFile(relativePath);
+        if (found.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path file = found.get();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            found = fileStorageService.findUploadedFile(relativePath);
+            if (found.isEmpty()) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            file = found.get();
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        }
+        String filename = file.getFileName().toString();
+        // 요청한 변형 대신 원본을 내려보내는 경우 (변형 생성 실패)
+        boolean fallback = !filename.equals(relativePath.substring(relativePath.lastIndexOf('/') + 1));
+        boolean contentNamed = !fallback && CONTENT_NAMED.matcher(filename).matches();
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = etagOf(filename, contentNamed, length, lastModified);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, fallback ? NO_CACHE : contentNamed ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(filename)
+            .map(Object::toString)
+            .orElse("application/octet-stream"));
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && rangeApplies(request, etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+        transfer(request, response, relativePath, file, start, count);
+    }
+
+    // 커널 sendfile (Tomcat) → FileChannel.transferTo 순으로 시도
+    // sendfile 은 Tomcat 이 나중에 경로로 파일을 열므로, 옮겨질 수 있는 평면 URL 파일은 직접 열어 전송
+    private void transfer(HttpServletRequest request, HttpServletResponse response, String relativePath, Path file,
+        long start, long count) throws IOException {
+        boolean flatUrl = !relativePath.contains("/");
+        if (!flatUrl && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (FileChannel channel = open(relativePath, file)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            out.flush();
+        }
+    }
+
+    // 열기 직전에 옮겨졌으면 옮겨진 위치에서 다시 열기 (열린 뒤에는 이동과 무관하게 읽힘)
+    private FileChannel open(String relativePath, Path file) throws IOException {
+        try {
+            return FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            Path relocated = fileStorageService.findUploadedFile(relativePath).orElseThrow(() -> e);
+            return FileChannel.open(relocated, StandardOpenOption.READ);
+        }
+    }
+
+    // 내용 식별 파일명은 이름 자체가 강한 검증자, 그 외는 크기 + 수정 시각
+    private String etagOf(String filename, boolean contentNamed, long length, long lastModified) {
+        String tag = contentNamed
+            ? filename
+            : Long.toHexString(length) + "-" + Long.toHexString(lastModified);
+        return "\"" + tag.replace("\"", "") + "\"";
+    }
+
+    private boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    // If-Range 가 현재 ETag/수정 시각과 다르면 Range 를 무시하고 전체 응답
+    private boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+        return date != -1 && lastModified / 1000 <= date / 1000;
+    }
+
+    private boolean matchesEtag(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 단일 byte range 해석
+     *
+     * @return {start, end}, 여러 구간 등 지원하지 않는 형식이면 빈 배열(전체 응답), 범위 밖이면 null(416)
+     */
+    private long[] parseRange(String header, long length) {
+        Matcher matcher = SINGLE_RANGE.matcher(header.trim());
+        if (!matcher.matches()) {
+            return new long[0];
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        try {
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return new long[0];
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix == 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.retripbackend.SNS.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * 피드 keyset(커서) 페이지네이션용 커서
+ * 마지막으로 내려준 게시글의 정렬 키를 불투명 문자열로 인코딩하여 다음 요청에 사용
+ * - 최신순: (createdAt, postId)
+ * - 추천순: (trendingScore, postId)
+ */
+public record FeedCursor(Double trendingScore, LocalDateTime createdAt, Long postId) {
+
+    private static final String DELIMITER = "|";
+
+    // 최신순 커서 생성
+    public static FeedCursor latest(PostSummary post) {
+        return new FeedCursor(null, post.createdAt(), post.postId());
+    }
+
+    // 추천순 커서 생성
+    public static FeedCursor recommended(PostSummary post) {
+        return new FeedCursor(post.trendingScore(), null, post.postId());
+    }
+
+    public boolean isLatest() {
+        return createdAt != null;
+    }
+
+    public boolean isRecommended() {
+        return trendingScore != null;
+    }
+
+    // URL에 그대로 실을 수 있도록 Base64(URL-safe)로 인코딩
+    public String encode() {
+        String raw = (trendingScore != null ? trendingScore.toString() : "")
+            + DELIMITER + (createdAt != null ? createdAt.toString() : "")
+            + DELIMITER + postId;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서 문자열 디코딩
+     * 비어 있거나 형식이 잘못된 커서는 첫 페이지 요청으로 취급하도록 empty 반환
+     */
+    public static Optional<FeedCursor> decode(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                return Optional.empty();
+            }
+            Double trendingScore = parts[0].isEmpty() ? null : Double.valueOf(parts[0]);
+            LocalDateTime createdAt = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return Optional.of(new FeedCursor(trendingScore, createdAt, Long.valueOf(parts[2])));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
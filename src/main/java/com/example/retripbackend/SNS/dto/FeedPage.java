@@ -0,0 +1,52 @@
+package com.example.retripbackend.SNS.dto;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * 커서 기반 피드 한 페이지
+ * 템플릿에서 Page와 같은 방식(content, hasContent, empty)으로 사용할 수 있도록 구성
+ * nextCursor가 null이면 마지막 페이지
+ */
+@Getter
+public class FeedPage<T> implements Iterable<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public FeedPage(List<T> content, String nextCursor) {
+        this.content = List.copyOf(content);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * size + 1 개까지 조회한 결과로 페이지 생성
+     * size 보다 많으면 다음 페이지가 있는 것으로 보고 마지막 항목으로 다음 커서를 만든다.
+     */
+    public static <T> FeedPage<T> of(List<T> rows, int size, Function<T, FeedCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new FeedPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new FeedPage<>(content, cursorOf.apply(content.get(size - 1)).encode());
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasContent() {
+        return !content.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return content.iterator();
+    }
+}
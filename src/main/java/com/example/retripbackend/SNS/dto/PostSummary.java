@@ -0,0 +1,45 @@
+package com.example.retripbackend.SNS.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 피드/검색/사용자 게시글 목록용 읽기 전용 모델
+ * 게시글 + 작성자 요약 + 여행 요약을 JOIN 한 번으로 조회하여
+ * LAZY 연관관계 추가 조회(N+1)나 open-session-in-view 에 의존하지 않음
+ * 템플릿에서는 post.author.name, post.travel.city 형태로 엔티티와 동일하게 사용
+ */
+public record PostSummary(
+    Long postId,
+    String title,
+    String imageUrl,
+    int likeCount,
+    int commentCount,
+    double trendingScore,
+    LocalDateTime createdAt,
+    AuthorSummary author,
+    TravelSummary travel
+) {
+
+    // JPQL 생성자 표현식(SELECT new ...)용 평면 생성자
+    public PostSummary(Long postId, String title, String imageUrl, Integer likeCount, Integer commentCount,
+        Double trendingScore, LocalDateTime createdAt, Long authorId, String authorName,
+        Long travelId, String city, String country, LocalDate startDate, LocalDate endDate) {
+        this(postId, title, imageUrl, likeCount, commentCount, trendingScore, createdAt,
+            new AuthorSummary(authorId, authorName),
+            new TravelSummary(travelId, city, country, startDate, endDate));
+    }
+
+    // 캐시된 요약 교체용 (record는 불변이므로 새 인스턴스 반환)
+    public PostSummary withTitle(String title) {
+        return new PostSummary(postId, title, imageUrl, likeCount, commentCount, trendingScore, createdAt, author, travel);
+    }
+
+    public PostSummary withLikeCount(int likeCount) {
+        return new PostSummary(postId, title, imageUrl, likeCount, commentCount, trendingScore, createdAt, author, travel);
+    }
+
+    public record AuthorSummary(Long userId, String name) {}
+
+    public record TravelSummary(Long travelId, String city, String country, LocalDate startDate, LocalDate endDate) {}
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -18,7 +19,9 @@ import lombok.NoArgsConstructor;
 @Entity
 @Getter
 @Table(name = "follows",
-    uniqueConstraints = @UniqueConstraint(columnNames = {"follower_id", "following_id"}))
+    uniqueConstraints = @UniqueConstraint(columnNames = {"follower_id", "following_id"}),
+    // 특정 사용자의 팔로워 목록 (타임라인 fan-out 시 follower_id 순 keyset 조회)
+    indexes = @Index(name = "idx_follows_following_follower", columnList = "following_id, follower_id"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Follow extends BaseEntity {
 
@@ -8,6 +8,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -18,11 +19,20 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Getter
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    // 커서 기반 피드 정렬 키 (최신순 / 추천순)
+    @Index(name = "idx_posts_created_at", columnList = "created_at, post_id"),
+    @Index(name = "idx_posts_trending", columnList = "trending_score, post_id"),
+    // 작성자별 최신 게시글 (팔로잉 피드 pull / 타임라인 backfill)
+    @Index(name = "idx_posts_author_created_at", columnList = "user_id, created_at, post_id")
+})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+// 변경된 컬럼만 UPDATE (제목 수정 등으로 읽어 둔 좋아요/댓글/조회수를 덮어쓰지 않도록)
+@DynamicUpdate
 public class Post extends BaseEntity {
 
     @Id
@@ -43,6 +53,7 @@ public class Post extends BaseEntity {
     @Column(columnDefinition = "TEXT")
     private String content;
 
+    // 좋아요/댓글/조회수는 PostRepository, PostViewCountBuffer 의 원자적 UPDATE 로만 변경
     @Column(nullable = false)
     private int likeCount = 0;
 
@@ -52,6 +63,13 @@ public class Post extends BaseEntity {
     @Column(nullable = false)
     private int viewCount = 0;
 
+    // 두 값은 TrendingScoreService 의 SQL로만 갱신 (엔티티 변경 감지로 덮어쓰지 않도록 updatable = false)
+    @Column(nullable = false, updatable = false)
+    private double trendingScore = 0; // 추천순 정렬 점수, log2 공간 (TrendingScoreService 참고)
+
+    @Column(name = "trending_weight", nullable = false, updatable = false)
+    private double trendingExponent = 0; // 작성 시각 기반 시간 가중치의 지수 (컬럼명은 기존 그대로 사용)
+
     @Column(length = 500)
     private String imageUrl; // 썸네일 (첫 번째 이미지)
 
@@ -74,11 +92,11 @@ public class Post extends BaseEntity {
         if (content != null) this.content = content;
     }
 
-    public void incrementLikeCount() { this.likeCount++; }
-    public void decrementLikeCount() { if (this.likeCount > 0) this.likeCount--; }
-    public void incrementCommentCount() { this.commentCount++; }
-    public void decrementCommentCount() { if (this.commentCount > 0) this.commentCount--; }
-    public void incrementViewCount() { this.viewCount++; }
+    // 트렌딩 점수 초기화 (작성 시)
+    public void initTrending(double trendingExponent, double trendingScore) {
+        this.trendingExponent = trendingExponent;
+        this.trendingScore = trendingScore;
+    }
 
     public boolean isAuthor(User user) {
         return this.author.getUserId().equals(user.getUserId());
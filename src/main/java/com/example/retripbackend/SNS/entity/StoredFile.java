@@ -0,0 +1,39 @@
+package com.example.retripbackend.SNS.entity;
+
+import com.example.retripbackend.baseEntity.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 내용 주소 기반(SHA-256) 업로드 파일 메타데이터
+ * 같은 내용의 파일은 한 번만 저장하고, PostImage / Receipt.imageUrl 에서 참조하는 수를 refCount로 관리
+ * refCount가 0인 파일은 유예 시간이 지나면 StoredFileService가 삭제
+ */
+@Entity
+@Getter
+@Table(name = "stored_files",
+    indexes = @Index(name = "idx_stored_files_ref_count", columnList = "ref_count, updated_at"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StoredFile extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long storedFileId;
+
+    @Column(nullable = false, unique = true, length = 200)
+    private String fileUrl;  // /uploads/<sha256><확장자>
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(nullable = false)
+    private int refCount = 0;
+}
@@ -0,0 +1,46 @@
+package com.example.retripbackend.SNS.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 팔로잉 피드 타임라인(inbox) 항목
+ * 게시글 작성 시 팔로워마다 한 행씩 미리 기록해 두고(fan-out-on-write),
+ * 피드 조회는 (user_id, post_created_at, post_id) 인덱스 범위 스캔 한 번으로 처리한다.
+ * posts/follows에서 파생되는 읽기 전용 테이블이므로 FK와 생성/수정일 컬럼을 두지 않음
+ * (삭제된 게시글의 항목은 조회 시 posts와 JOIN 되지 않아 자연히 제외됨)
+ */
+@Entity
+@Getter
+@Table(name = "timelines",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "post_id"}),
+    indexes = @Index(name = "idx_timelines_user_created_at", columnList = "user_id, post_created_at, post_id"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class TimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long timelineId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;  // 타임라인 주인 (팔로워)
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;  // 언팔로우 시 해당 작성자 항목 정리용
+
+    @Column(name = "post_created_at", nullable = false)
+    private LocalDateTime postCreatedAt;  // 게시글 작성 시각 (정렬 키)
+}
@@ -14,6 +14,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -55,7 +56,12 @@ public class Travel extends BaseEntity {
     private String memo;
 
     @Column(nullable = false)
-    private int totalAmount = 0;
+    private int totalAmount = 0; // 영수증 금액 합계 (TravelRepository.addTotalAmount 로 증감)
+
+    // 낙관적 락 버전 (총액 증감 UPDATE 에서도 함께 증가)
+    @Version
+    @Column(nullable = false)
+    private long version;
 
     // Receipt와의 관계 추가
     @OneToMany(mappedBy = "travel", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -85,9 +91,4 @@ public class Travel extends BaseEntity {
         this.endDate = endDate;
         this.memo = memo;
     }
-
-    // 총액 업데이트 (가계부에서 호출)
-    public void updateTotalAmount(int amount) {
-        this.totalAmount = amount;
-    }
 }
@@ -0,0 +1,10 @@
+package com.example.retripbackend.SNS.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * 게시글 작성 완료 이벤트
+ * 트랜잭션 커밋 이후 팔로워 타임라인 fan-out 에 사용 (엔티티 대신 식별자만 전달)
+ */
+public record PostCreatedEvent(Long postId, Long authorId, LocalDateTime createdAt) {
+}
@@ -4,7 +4,10 @@ import com.example.retripbackend.SNS.entity.Follow;
 import com.example.retripbackend.user.entity.User;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -27,13 +30,24 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
 
     // 팔로잉 수
     long countByFollower(User follower);
-}
-
-
-
-
-
-
-
-
 
+    // 팔로워 ID 목록 (follower_id 순 keyset, 타임라인 fan-out 배치용)
+    @Query("SELECT f.follower.userId FROM Follow f " +
+        "WHERE f.following.userId = :followingId AND f.follower.userId > :afterId " +
+        "ORDER BY f.follower.userId")
+    List<Long> findFollowerIdsAfter(@Param("followingId") Long followingId,
+        @Param("afterId") Long afterId,
+        Pageable pageable);
+
+    // 내가 팔로우하는 사용자 중 팔로워 수가 기준을 넘는 사용자 ID (fan-out 대신 조회 시 pull)
+    @Query("SELECT f.following.userId FROM Follow f " +
+        "WHERE f.follower.userId = :followerId AND f.following.followerCount > :threshold")
+    List<Long> findFollowingIdsWithFollowerCountOver(@Param("followerId") Long followerId,
+        @Param("threshold") int threshold);
+
+    // 팔로워 수가 임계값 이하인 팔로잉 ID (fan-out 대상 작성자, 타임라인 백필용)
+    @Query("SELECT f.following.userId FROM Follow f " +
+        "WHERE f.follower.userId = :followerId AND f.following.followerCount <= :threshold")
+    List<Long> findFollowingIdsWithFollowerCountAtMost(@Param("followerId") Long followerId,
+        @Param("threshold") int threshold);
+}
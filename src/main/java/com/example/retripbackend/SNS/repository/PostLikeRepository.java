@@ -3,9 +3,11 @@ package com.example.retripbackend.SNS.repository;
 import com.example.retripbackend.SNS.entity.Post;
 import com.example.retripbackend.SNS.entity.PostLike;
 import com.example.retripbackend.user.entity.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -29,6 +31,24 @@ public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
         "WHERE pl.user = :user")
     List<PostLike> findByUserWithPostAndUser(@Param("user") User user);
 
+    // 주어진 게시글 중 사용자가 좋아요한 게시글 ID (피드 한 페이지당 IN 쿼리 1회)
+    @Query("SELECT pl.post.postId FROM PostLike pl " +
+        "WHERE pl.user = :user AND pl.post.postId IN :postIds")
+    List<Long> findLikedPostIds(@Param("user") User user, @Param("postIds") Collection<Long> postIds);
+
+    // ========== 좋아요 토글 (엔티티 로딩 없이 처리) ==========
+
+    // 좋아요 추가: (post_id, user_id) 유니크 제약에 의해 이미 존재하면 무시 (추가된 행 수 반환)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO post_likes (post_id, user_id, created_at, updated_at) " +
+        "VALUES (:postId, :userId, NOW(6), NOW(6))", nativeQuery = true)
+    int insertIgnore(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    // 좋아요 삭제 (삭제된 행 수 반환)
+    @Modifying
+    @Query("DELETE FROM PostLike pl WHERE pl.post.postId = :postId AND pl.user.userId = :userId")
+    int deleteByPostIdAndUserId(@Param("postId") Long postId, @Param("userId") Long userId);
+
     // 기본 목록 조회
     List<PostLike> findByUser(User user);
 }
\ No newline at end of file
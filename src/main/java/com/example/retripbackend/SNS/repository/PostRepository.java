@@ -1,11 +1,15 @@
 package com.example.retripbackend.SNS.repository;
 
+import com.example.retripbackend.SNS.dto.PostSummary;
 import com.example.retripbackend.SNS.entity.Post;
 import com.example.retripbackend.user.entity.User;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,14 +17,80 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
-    // 전체 게시글 (최신순)
-    Page<Post> findAllByOrderByCreatedAtDesc(Pageable pageable);
-
-    // 추천순 (좋아요 많은 순)
-    Page<Post> findAllByOrderByLikeCountDescCreatedAtDesc(Pageable pageable);
+    // 목록 조회는 Slice로 반환 (COUNT 쿼리 없이 size + 1 조회로 다음 페이지 여부만 판단)
+
+    // ========== 피드용 읽기 모델 (PostSummary) ==========
+    // 게시글 + 작성자 + 여행 요약을 JOIN 한 번으로 조회 (LAZY 연관관계 추가 조회 없음)
+
+    String SUMMARY_SELECT = "SELECT new com.example.retripbackend.SNS.dto.PostSummary(" +
+        "p.postId, p.title, p.imageUrl, p.likeCount, p.commentCount, p.trendingScore, p.createdAt, " +
+        "a.userId, a.name, t.travelId, t.city, t.country, t.startDate, t.endDate) " +
+        "FROM Post p JOIN p.author a JOIN p.travel t ";
+
+    // 최신순 첫 페이지 (postId로 동순위 정렬 고정)
+    @Query(SUMMARY_SELECT +
+        "ORDER BY p.createdAt DESC, p.postId DESC")
+    List<PostSummary> findLatestSummaries(Pageable pageable);
+
+    // 최신순 다음 페이지: 커서 (createdAt, postId) 이후 게시글
+    @Query(SUMMARY_SELECT +
+        "WHERE p.createdAt <= :createdAt " +
+        "AND (p.createdAt < :createdAt OR p.postId < :postId) " +
+        "ORDER BY p.createdAt DESC, p.postId DESC")
+    List<PostSummary> findLatestSummariesAfter(@Param("createdAt") LocalDateTime createdAt,
+        @Param("postId") Long postId,
+        Pageable pageable);
+
+    // 추천순(트렌딩) 첫 페이지: (trending_score, post_id) 인덱스 범위 스캔
+    @Query(SUMMARY_SELECT +
+        "ORDER BY p.trendingScore DESC, p.postId DESC")
+    List<PostSummary> findRecommendedSummaries(Pageable pageable);
+
+    // 추천순(트렌딩) 다음 페이지: 커서 (trendingScore, postId) 이후 게시글
+    @Query(SUMMARY_SELECT +
+        "WHERE p.trendingScore <= :trendingScore " +
+        "AND (p.trendingScore < :trendingScore OR p.postId < :postId) " +
+        "ORDER BY p.trendingScore DESC, p.postId DESC")
+    List<PostSummary> findRecommendedSummariesAfter(@Param("trendingScore") double trendingScore,
+        @Param("postId") Long postId,
+        Pageable pageable);
+
+    // 여러 작성자의 최신 게시글 (팔로잉 피드에서 fan-out 하지 않는 작성자 pull 용)
+    @Query(SUMMARY_SELECT +
+        "WHERE a.userId IN :authorIds " +
+        "ORDER BY p.createdAt DESC, p.postId DESC")
+    List<PostSummary> findLatestSummariesByAuthors(@Param("authorIds") Collection<Long> authorIds, Pageable pageable);
+
+    @Query(SUMMARY_SELECT +
+        "WHERE a.userId IN :authorIds " +
+        "AND p.createdAt <= :createdAt " +
+        "AND (p.createdAt < :createdAt OR p.postId < :postId) " +
+        "ORDER BY p.createdAt DESC, p.postId DESC")
+    List<PostSummary> findLatestSummariesByAuthorsAfter(@Param("authorIds") Collection<Long> authorIds,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("postId") Long postId,
+        Pageable pageable);
+
+    // 특정 사용자의 게시글 목록
+    @Query(SUMMARY_SELECT +
+        "WHERE p.author = :author " +
+        "ORDER BY p.createdAt DESC, p.postId DESC")
+    Slice<PostSummary> findSummariesByAuthor(@Param("author") User author, Pageable pageable);
+
+    // 특정 도시의 게시글 목록
+    @Query(SUMMARY_SELECT +
+        "WHERE t.city = :city " +
+        "ORDER BY p.createdAt DESC, p.postId DESC")
+    Slice<PostSummary> findSummariesByCity(@Param("city") String city, Pageable pageable);
+
+    // 도시명 검색 결과 목록 (대소문자 무시, 부분 일치)
+    @Query(SUMMARY_SELECT +
+        "WHERE UPPER(t.city) LIKE UPPER(CONCAT('%', :cityKeyword, '%')) " +
+        "ORDER BY p.createdAt DESC, p.postId DESC")
+    Slice<PostSummary> searchSummariesByCity(@Param("cityKeyword") String cityKeyword, Pageable pageable);
 
     // 특정 사용자의 게시글
-    Page<Post> findByAuthorOrderByCreatedAtDesc(User author, Pageable pageable);
+    Slice<Post> findByAuthorOrderByCreatedAtDesc(User author, Pageable pageable);
 
     // 특정 여행의 게시글
     @Query("SELECT p FROM Post p WHERE p.travel.travelId = :travelId ORDER BY p.createdAt DESC")
@@ -28,7 +98,25 @@ public interface PostRepository extends JpaRepository<Post, Long> {
 
     // 특정 도시의 게시글
     @Query("SELECT p FROM Post p WHERE p.travel.city = :city ORDER BY p.createdAt DESC")
-    Page<Post> findByCityOrderByCreatedAtDesc(@Param("city") String city, Pageable pageable);
+    Slice<Post> findByCityOrderByCreatedAtDesc(@Param("city") String city, Pageable pageable);
+
+    // 좋아요 수 원자적 증감 (엔티티를 읽어 dirty checking 하지 않으므로 동시 요청에도 유실 없음)
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + 1 WHERE p.postId = :postId")
+    int incrementLikeCount(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount - 1 WHERE p.postId = :postId AND p.likeCount > 0")
+    int decrementLikeCount(@Param("postId") Long postId);
+
+    // 댓글 수 원자적 증감
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + 1 WHERE p.postId = :postId")
+    int incrementCommentCount(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount - 1 WHERE p.postId = :postId AND p.commentCount > 0")
+    int decrementCommentCount(@Param("postId") Long postId);
 
     // 게시글 수 조회
     long countByAuthor(User author);
@@ -40,7 +128,10 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      * SearchController에서 사용
      * 예: "파리" 검색 시 "파리", "파리지앵" 등 포함
      */
-    Page<Post> findByTravel_CityContainingIgnoreCase(String cityKeyword, Pageable pageable);
+    Slice<Post> findByTravel_CityContainingIgnoreCase(String cityKeyword, Pageable pageable);
+
+    // 도시명 검색 결과 수 (PostCountCache를 통해 캐시된 근사치로만 사용)
+    long countByTravel_CityContainingIgnoreCase(String cityKeyword);
 
     /**
      * 게시물이 많은 도시 상위 N개 조회
@@ -0,0 +1,56 @@
+package com.example.retripbackend.SNS.repository;
+
+import com.example.retripbackend.SNS.entity.StoredFile;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+
+    // 업로드 기록 (이미 있으면 updated_at만 갱신하여 정리 대상에서 유예)
+    // 파일 쓰기 전에 바로 커밋되도록 호출자 트랜잭션과 별도로 실행 (행 잠금을 파일 쓰는 동안 쥐지 않음)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO stored_files (file_url, size, ref_count, created_at, updated_at) " +
+        "VALUES (:fileUrl, :size, 0, NOW(6), NOW(6)) " +
+        "ON DUPLICATE KEY UPDATE updated_at = NOW(6)",
+        nativeQuery = true)
+    int registerUpload(@Param("fileUrl") String fileUrl, @Param("size") long size);
+
+    // 참조 수 원자적 증감
+    @Modifying
+    @Query("UPDATE StoredFile s SET s.refCount = s.refCount + 1 WHERE s.fileUrl = :fileUrl")
+    int incrementRefCount(@Param("fileUrl") String fileUrl);
+
+    @Modifying
+    @Query("UPDATE StoredFile s SET s.refCount = s.refCount - 1 WHERE s.fileUrl = :fileUrl AND s.refCount > 0")
+    int decrementRefCount(@Param("fileUrl") String fileUrl);
+
+    // 실제 참조(게시글 썸네일, 게시글 이미지, 영수증 이미지, 대기/처리 중인 분석 작업)로 참조 수 재계산
+    @Modifying
+    @Query(value = "UPDATE stored_files s SET s.ref_count = " +
+        "(SELECT COUNT(*) FROM posts p WHERE p.image_url = s.file_url) + " +
+        "(SELECT COUNT(*) FROM post_images pi WHERE pi.image_url = s.file_url) + " +
+        "(SELECT COUNT(*) FROM receipts r WHERE r.image_url = s.file_url) + " +
+        "(SELECT COUNT(*) FROM receipt_analysis_jobs j WHERE j.image_url = s.file_url " +
+        "AND j.status IN ('PENDING', 'RUNNING'))",
+        nativeQuery = true)
+    int recountReferences();
+
+    // 참조가 없고 유예 시간이 지난 파일
+    @Query("SELECT s.fileUrl FROM StoredFile s WHERE s.refCount = 0 AND s.updatedAt < :cutoff")
+    List<String> findUnreferencedFileUrls(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // 그 사이 다시 업로드/참조되지 않은 경우에만 삭제
+    @Modifying
+    @Query("DELETE FROM StoredFile s WHERE s.fileUrl = :fileUrl AND s.refCount = 0 AND s.updatedAt < :cutoff")
+    int deleteIfUnreferenced(@Param("fileUrl") String fileUrl, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,52 @@
+package com.example.retripbackend.SNS.repository;
+
+import com.example.retripbackend.SNS.dto.PostSummary;
+import com.example.retripbackend.SNS.entity.TimelineEntry;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TimelineRepository extends JpaRepository<TimelineEntry, Long> {
+
+    // 타임라인 항목 → 게시글 요약 (게시글은 PK 조회, follows 테이블은 사용하지 않음)
+    String TIMELINE_SELECT = "SELECT new com.example.retripbackend.SNS.dto.PostSummary(" +
+        "p.postId, p.title, p.imageUrl, p.likeCount, p.commentCount, p.trendingScore, p.createdAt, " +
+        "a.userId, a.name, t.travelId, t.city, t.country, t.startDate, t.endDate) " +
+        "FROM TimelineEntry e JOIN Post p ON p.postId = e.postId JOIN p.author a JOIN p.travel t ";
+
+    // 팔로잉 피드 첫 페이지: (user_id, post_created_at, post_id) 인덱스 범위 스캔
+    @Query(TIMELINE_SELECT +
+        "WHERE e.userId = :userId " +
+        "ORDER BY e.postCreatedAt DESC, e.postId DESC")
+    List<PostSummary> findTimeline(@Param("userId") Long userId, Pageable pageable);
+
+    // 팔로잉 피드 다음 페이지: 커서 (createdAt, postId) 이후 항목
+    @Query(TIMELINE_SELECT +
+        "WHERE e.userId = :userId " +
+        "AND e.postCreatedAt <= :createdAt " +
+        "AND (e.postCreatedAt < :createdAt OR e.postId < :postId) " +
+        "ORDER BY e.postCreatedAt DESC, e.postId DESC")
+    List<PostSummary> findTimelineAfter(@Param("userId") Long userId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("postId") Long postId,
+        Pageable pageable);
+
+    // 팔로우 시 상대방의 최근 게시글을 내 타임라인에 채움
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO timelines (user_id, post_id, author_id, post_created_at) " +
+        "SELECT :userId, p.post_id, p.user_id, p.created_at FROM posts p " +
+        "WHERE p.user_id = :authorId ORDER BY p.created_at DESC LIMIT :limit",
+        nativeQuery = true)
+    int backfill(@Param("userId") Long userId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    // 언팔로우 시 해당 작성자의 항목 제거
+    @Modifying
+    @Query("DELETE FROM TimelineEntry e WHERE e.userId = :userId AND e.authorId = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+}
@@ -4,8 +4,11 @@ import com.example.retripbackend.SNS.entity.Travel;
 import com.example.retripbackend.user.entity.User;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface TravelRepository extends JpaRepository<Travel, Long> {
@@ -16,6 +19,29 @@ public interface TravelRepository extends JpaRepository<Travel, Long> {
     // 여행 수 조회
     long countByUser(User user);
 
+    /**
+     * 총액 증감 (영수증 추가/수정 시)
+     * 합계를 다시 계산하지 않고 원자적 UPDATE로 차이만 더하므로 같은 여행에 동시에 영수증이 저장되어도 누락되지 않음
+     * 버전도 함께 올려서 이전에 읽은 Travel 엔티티로 덮어쓰는 수정은 낙관적 락 오류가 나도록 함
+     */
+    @Modifying
+    @Query("UPDATE Travel t SET t.totalAmount = t.totalAmount + :delta, t.version = t.version + 1 WHERE t.travelId = :travelId")
+    int addTotalAmount(@Param("travelId") Long travelId, @Param("delta") int delta);
+
+    // 영수증 합계와 다른 총액 보정 (travelId 범위 단위)
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Travel t
+        SET t.totalAmount = (SELECT COALESCE(SUM(r.amount), 0) FROM Receipt r WHERE r.travel = t),
+            t.version = t.version + 1
+        WHERE t.travelId > :fromId AND t.travelId <= :toId
+          AND t.totalAmount <> (SELECT COALESCE(SUM(r.amount), 0) FROM Receipt r WHERE r.travel = t)
+        """)
+    int reconcileTotalAmounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT MAX(t.travelId) FROM Travel t")
+    Long findMaxTravelId();
 }
 
 
@@ -3,6 +3,7 @@ package com.example.retripbackend.SNS.service;
 import com.example.retripbackend.SNS.entity.Comment;
 import com.example.retripbackend.SNS.entity.Post;
 import com.example.retripbackend.SNS.repository.CommentRepository;
+import com.example.retripbackend.SNS.repository.PostRepository;
 import com.example.retripbackend.user.entity.User;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class CommentService {
 
     private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final TrendingScoreService trendingScoreService;
 
     // 댓글 목록 조회
     public List<Comment> getPostComments(Post post) {
@@ -27,8 +30,9 @@ public class CommentService {
         // Comment.of()가 내부적으로 빌더나 정적 팩토리 메서드로 잘 구현되어 있다고 가정합니다.
         Comment comment = Comment.of(post, author, content);
 
-        // 게시글의 댓글 수 증가
-        post.incrementCommentCount();
+        // 게시글의 댓글 수 증가 (원자적 UPDATE)
+        postRepository.incrementCommentCount(post.getPostId());
+        trendingScoreService.onComment(post.getPostId(), 1);
 
         return commentRepository.save(comment);
     }
@@ -57,7 +61,8 @@ public class CommentService {
 
         // 3. 게시글의 댓글 수 감소
         Post post = comment.getPost();
-        post.decrementCommentCount();
+        postRepository.decrementCommentCount(post.getPostId());
+        trendingScoreService.onComment(post.getPostId(), -1);
 
         // 4. 삭제 수행
         commentRepository.delete(comment);
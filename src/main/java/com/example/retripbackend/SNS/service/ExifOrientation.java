@@ -0,0 +1,151 @@
+package com.example.retripbackend.SNS.service;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * JPEG EXIF Orientation 처리
+ * 휴대폰 사진은 센서 방향 그대로 저장하고 회전 정보만 EXIF(APP1)의 Orientation 태그에 기록하는데,
+ * ImageIO는 이 태그를 무시하고 다시 인코딩하면 EXIF도 사라지므로 옆으로 눕거나 뒤집힌 이미지가 된다.
+ * 디코딩한 이미지를 크기 변경 전에 태그대로 돌려 둔다. (metadata-extractor 없이 APP1의 IFD0만 직접 읽음)
+ */
+public final class ExifOrientation {
+
+    public static final int NORMAL = 1;
+
+    private static final int ORIENTATION_TAG = 0x0112;
+    private static final int MARKER_APP1 = 0xE1;
+    private static final int MARKER_SOS = 0xDA;
+    private static final int MARKER_EOI = 0xD9;
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+
+    private ExifOrientation() {
+    }
+
+    /**
+     * Orientation 태그 값 (1~8)
+     * JPEG가 아니거나 태그가 없거나 읽을 수 없으면 NORMAL
+     */
+    public static int read(InputStream image) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(image));
+        try {
+            if (in.readUnsignedByte() != 0xFF || in.readUnsignedByte() != 0xD8) {
+                return NORMAL; // JPEG 아님
+            }
+            while (true) {
+                if (in.readUnsignedByte() != 0xFF) {
+                    return NORMAL;
+                }
+                int marker = in.readUnsignedByte();
+                while (marker == 0xFF) { // 채움 바이트
+                    marker = in.readUnsignedByte();
+                }
+                if (marker == MARKER_SOS || marker == MARKER_EOI) {
+                    return NORMAL; // 이미지 데이터 시작 전까지 EXIF 없음
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return NORMAL;
+                }
+                if (marker != MARKER_APP1) {
+                    in.skipNBytes(length);
+                    continue;
+                }
+                byte[] segment = in.readNBytes(length);
+                int orientation = parseExif(segment);
+                if (orientation != 0) {
+                    return orientation;
+                }
+                // XMP 등 다른 APP1 이면 다음 세그먼트 확인
+            }
+        } catch (EOFException e) {
+            return NORMAL;
+        }
+    }
+
+    // 90/270도 회전이 들어가 가로세로가 바뀌는 값인지
+    public static boolean swapsDimensions(int orientation) {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    /**
+     * 태그대로 돌린 이미지 (NORMAL 이면 그대로 반환)
+     */
+    public static BufferedImage apply(BufferedImage image, int orientation) {
+        if (orientation <= NORMAL || orientation > 8) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        // x' = m00 * x + m01 * y + m02, y' = m10 * x + m11 * y + m12
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);  // 좌우 반전
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h); // 180도
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);  // 상하 반전
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);   // 좌우 반전 + 270도 (transpose)
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);  // 시계 방향 90도
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w); // 좌우 반전 + 90도 (transverse)
+            default -> new AffineTransform(0, -1, 1, 0, 0, w); // 8: 시계 방향 270도
+        };
+
+        boolean swap = swapsDimensions(orientation);
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage target = new BufferedImage(swap ? h : w, swap ? w : h, type);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.drawImage(image, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // APP1 내용에서 IFD0 의 Orientation 값 (EXIF가 아니거나 태그가 없으면 0)
+    private static int parseExif(byte[] segment) {
+        if (segment.length < EXIF_HEADER.length + 8) {
+            return 0;
+        }
+        for (int i = 0; i < EXIF_HEADER.length; i++) {
+            if (segment[i] != EXIF_HEADER[i]) {
+                return 0;
+            }
+        }
+
+        ByteBuffer tiff = ByteBuffer.wrap(segment, EXIF_HEADER.length, segment.length - EXIF_HEADER.length).slice();
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (tiff.get(0) == 'M' && tiff.get(1) == 'M') {
+            tiff.order(ByteOrder.BIG_ENDIAN);
+        } else {
+            return 0;
+        }
+        if (tiff.getShort(2) != 42) {
+            return 0;
+        }
+
+        long ifdOffset = Integer.toUnsignedLong(tiff.getInt(4));
+        if (ifdOffset + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entries = Short.toUnsignedInt(tiff.getShort((int) ifdOffset));
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifdOffset + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                return 0;
+            }
+            if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                int value = Short.toUnsignedInt(tiff.getShort(entry + 8)); // SHORT 1개는 값 필드 앞 2바이트
+                return value >= 1 && value <= 8 ? value : NORMAL;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.retripbackend.SNS.service;
+
+import com.example.retripbackend.SNS.dto.FeedCursor;
+import com.example.retripbackend.SNS.dto.FeedPage;
+import com.example.retripbackend.SNS.dto.PostSummary;
+import com.example.retripbackend.SNS.event.PostCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 피드 앞쪽 페이지 캐시 (/home, /explore 의 최신순/추천순)
+ * 정렬별로 상위 head-size 개의 게시글 요약(불변 record)을 한 목록으로 보관하고,
+ * 첫 페이지와 그 목록 안에서 이어지는 커서 요청은 DB 조회 없이 잘라서 응답한다.
+ * - 만료: TTL 경과 시 다음 요청에서 다시 로딩 / 크기: 정렬당 head-size 개로 고정
+ * - 요청 합치기: 만료 직후 동시에 들어온 요청은 하나의 로딩 결과(CompletableFuture)를 함께 기다림
+ * - 무효화: 게시글 작성(커밋 후)은 전체 비움, 수정/삭제/좋아요는 목록 안의 요약만 교체/제거
+ *   (트랜잭션 안에서 호출되면 커밋 후에 반영하므로 롤백된 변경이 캐시에 남지 않음)
+ */
+@Slf4j
+@Component
+public class FeedCache {
+
+    public static final String LATEST = "latest";
+    public static final String RECOMMEND = "recommend";
+
+    private final Map<String, CompletableFuture<CachedFeed>> cache = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${post.feed-cache.head-size:50}")
+    private int headSize;
+
+    @Value("${post.feed-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    public FeedCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("feed.cache.size", cache, Map::size)
+            .description("캐시된 피드 정렬 수")
+            .register(meterRegistry);
+    }
+
+    public int getHeadSize() {
+        return headSize;
+    }
+
+    /**
+     * 캐시된 목록에서 페이지 조회
+     * 커서가 캐시 범위를 벗어나거나 로딩에 실패하면 empty 를 반환하므로 호출 측에서 DB 조회
+     *
+     * @param loader 캐시가 비었을 때 상위 headSize + 1 개를 읽는 쿼리
+     */
+    public Optional<FeedPage<PostSummary>> getPage(String sort, Optional<FeedCursor> after, int size,
+        Function<PostSummary, FeedCursor> cursorOf, Supplier<List<PostSummary>> loader) {
+        if (size > headSize) {
+            return Optional.empty();
+        }
+
+        CachedFeed cached;
+        try {
+            cached = getOrLoad(sort, loader);
+        } catch (CompletionException e) {
+            log.warn("피드 캐시 로딩 실패, DB에서 직접 조회: sort={}", sort, e.getCause());
+            return Optional.empty();
+        }
+
+        List<PostSummary> rows = cached.rows();
+        int start = 0;
+        if (after.isPresent()) {
+            start = indexOf(rows, after.get().postId()) + 1;
+            if (start == 0) {
+                counter(sort, "bypass").increment();
+                return Optional.empty();
+            }
+        }
+
+        // 목록 끝을 넘는 페이지는 전체 게시글이 목록에 있을 때만 캐시로 응답
+        int end = start + size + 1;
+        if (end > rows.size() && !cached.complete()) {
+            counter(sort, "bypass").increment();
+            return Optional.empty();
+        }
+        return Optional.of(FeedPage.of(rows.subList(start, Math.min(end, rows.size())), size, cursorOf));
+    }
+
+    // 게시글 요약 교체 (수정, 좋아요 수 변경)
+    public void patch(Long postId, UnaryOperator<PostSummary> change) {
+        afterCommit(() -> update(rows -> rows.stream()
+            .map(post -> post.postId().equals(postId) ? change.apply(post) : post)
+            .toList()));
+    }
+
+    // 게시글 제거 (삭제)
+    public void remove(Long postId) {
+        afterCommit(() -> update(rows -> rows.stream()
+            .filter(post -> !post.postId().equals(postId))
+            .toList()));
+    }
+
+    // 새 게시글은 정렬 위치를 알 수 없으므로 커밋 후 전체 비움
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostCreated(PostCreatedEvent event) {
+        cache.clear();
+    }
+
+    // 진행 중인 트랜잭션이 있으면 커밋된 뒤에 실행 (롤백되면 실행하지 않음), 없으면 바로 실행
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private CachedFeed getOrLoad(String sort, Supplier<List<PostSummary>> loader) {
+        while (true) {
+            CompletableFuture<CachedFeed> current = cache.get(sort);
+            if (current != null && !isStale(current)) {
+                counter(sort, "hit").increment();
+                return current.join();
+            }
+
+            // 한 요청만 로딩을 맡고 나머지는 같은 future 를 기다림
+            CompletableFuture<CachedFeed> loading = new CompletableFuture<>();
+            boolean owner = (current == null)
+                ? cache.putIfAbsent(sort, loading) == null
+                : cache.replace(sort, current, loading);
+            if (!owner) {
+                continue;
+            }
+
+            counter(sort, "miss").increment();
+            try {
+                List<PostSummary> rows = List.copyOf(loader.get());
+                // headSize 보다 적게 읽혔으면 전체 게시글이 목록에 있는 것
+                loading.complete(new CachedFeed(rows, rows.size() <= headSize,
+                    System.currentTimeMillis() + ttlSeconds * 1000));
+            } catch (RuntimeException e) {
+                cache.remove(sort, loading);
+                loading.completeExceptionally(e);
+            }
+            return loading.join();
+        }
+    }
+
+    // 로딩이 끝난 목록만 수정하고, 로딩 중인 항목은 변경 이전 데이터일 수 있으므로 버림
+    private void update(UnaryOperator<List<PostSummary>> change) {
+        cache.replaceAll((sort, future) -> {
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                return CompletableFuture.failedFuture(new IllegalStateException("invalidated"));
+            }
+            CachedFeed cached = future.join();
+            return CompletableFuture.completedFuture(new CachedFeed(change.apply(cached.rows()), cached.complete(), cached.expiresAt()));
+        });
+    }
+
+    private boolean isStale(CompletableFuture<CachedFeed> future) {
+        if (!future.isDone()) {
+            return false;
+        }
+        return future.isCompletedExceptionally() || future.join().expiresAt() <= System.currentTimeMillis();
+    }
+
+    private int indexOf(List<PostSummary> rows, Long postId) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).postId().equals(postId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Counter counter(String sort, String result) {
+        return Counter.builder("feed.cache.requests")
+            .description("피드 캐시 조회 결과")
+            .tag("sort", sort)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private record CachedFeed(List<PostSummary> rows, boolean complete, long expiresAt) {}
+}
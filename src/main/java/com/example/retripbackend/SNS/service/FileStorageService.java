@@ -1,25 +1,65 @@
 package com.example.retripbackend.SNS.service;
 
+import com.example.retripbackend.SNS.repository.StoredFileRepository;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+/**
+ * 업로드 파일 저장
+ * 기본(content-addressed) 모드는 파일 내용의 SHA-256 을 파일명으로 사용해 같은 내용을 한 번만 저장하고,
+ * 이미 있는 파일이면 디스크 쓰기 없이 stored_files 기록만 갱신한다. (참조 수는 StoredFileService 참고)
+ * file.storage-mode=uuid 로 설정하면 기존처럼 매번 UUID 파일명으로 저장한다.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FileStorageService {
 
+    private static final String URL_PREFIX = "/uploads/";
+    private static final String CONTENT_ADDRESSED = "content-addressed";
+    private static final Pattern DIGEST_FILENAME = Pattern.compile("[0-9a-f]{64}(\\.[^/]*)?");
+    private static final Pattern HEX_PREFIX = Pattern.compile("^[0-9a-fA-F]{4}");
+
+    private final StoredFileRepository storedFileRepository;
+    private final ImageVariantService imageVariantService;
+
     @Value("${file.upload-dir:./uploads}")
     private String uploadDir;
 
+    @Value("${file.upload-parallelism:4}")
+    private int uploadParallelism;
+
+    @Value("${file.storage-mode:content-addressed}")
+    private String storageMode;
+
     public List<String> saveFiles(MultipartFile[] files) throws IOException {
         List<String> fileUrls = new ArrayList<>();
         
@@ -27,41 +67,284 @@ public class FileStorageService {
             return fileUrls;
         }
 
-        // 업로드 디렉토리 생성
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        Path uploadPath = createUploadDirectory();
 
         for (MultipartFile file : files) {
             if (file.isEmpty()) {
                 continue;
             }
+            fileUrls.add(store(uploadPath, file));
+        }
 
-            // 고유한 파일명 생성
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-            String uniqueFilename = UUID.randomUUID().toString() + extension;
+        return fileUrls;
+    }
+
+    /**
+     * 여러 묶음의 파일을 가상 스레드에서 동시에 저장
+     * 동시에 쓰는 파일 수는 file.upload-parallelism 으로 제한하고, 결과는 키/파일 순서를 유지한다.
+     * 하나라도 실패하면 이미 저장된 파일을 삭제한 뒤 예외를 던진다.
+     */
+    public <K> Map<K, List<String>> saveFilesConcurrently(Map<K, MultipartFile[]> filesByKey) throws IOException {
+        Map<K, List<String>> fileUrls = new LinkedHashMap<>();
+        if (filesByKey == null || filesByKey.isEmpty()) {
+            return fileUrls;
+        }
 
-            // 파일 저장
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        Path uploadPath = createUploadDirectory();
+        Semaphore permits = new Semaphore(uploadParallelism);
+        Map<K, List<Future<String>>> pending = new LinkedHashMap<>();
 
-            // URL 생성 (웹에서 접근 가능한 경로)
-            String fileUrl = "/uploads/" + uniqueFilename;
-            fileUrls.add(fileUrl);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            filesByKey.forEach((key, files) -> {
+                List<Future<String>> futures = new ArrayList<>();
+                if (files != null) {
+                    for (MultipartFile file : files) {
+                        if (file == null || file.isEmpty()) {
+                            continue;
+                        }
+                        futures.add(executor.submit(() -> {
+                            permits.acquire();
+                            try {
+                                return store(uploadPath, file);
+                            } finally {
+                                permits.release();
+                            }
+                        }));
+                    }
+                }
+                pending.put(key, futures);
+            });
+        } // 모든 저장 작업이 끝날 때까지 대기
+
+        List<String> saved = new ArrayList<>();
+        IOException failure = null;
+        for (Map.Entry<K, List<Future<String>>> entry : pending.entrySet()) {
+            List<String> urls = new ArrayList<>();
+            for (Future<String> future : entry.getValue()) {
+                try {
+                    String url = future.get();
+                    urls.add(url);
+                    saved.add(url);
+                } catch (ExecutionException | InterruptedException e) {
+                    if (failure == null) {
+                        failure = new IOException("파일 저장에 실패했습니다.", e instanceof ExecutionException ? e.getCause() : e);
+                    }
+                }
+            }
+            fileUrls.put(entry.getKey(), urls);
         }
 
+        if (failure != null) {
+            deleteFiles(saved);
+            throw failure;
+        }
         return fileUrls;
     }
 
+    // 저장한 파일 삭제 (게시글 저장 실패 시 정리용, 실패해도 예외를 던지지 않음)
+    // 내용 주소 파일은 다른 게시글과 공유될 수 있으므로 지우지 않고 StoredFileService 정리 작업에 맡김
+    public void deleteFiles(Collection<String> fileUrls) {
+        for (String fileUrl : fileUrls) {
+            if (fileUrl != null && !isContentAddressed(fileUrl)) {
+                deleteStoredFile(fileUrl);
+            }
+        }
+    }
+
+    // 파일 삭제 (참조 여부를 확인하지 않음)
+    public void deleteStoredFile(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith(URL_PREFIX)) {
+            return;
+        }
+        try {
+            Path path = resolvePath(fileUrl.substring(URL_PREFIX.length()));
+            Files.deleteIfExists(path);
+            // 크기별 변형도 함께 삭제
+            for (int width : ImageVariantService.WIDTHS) {
+                Files.deleteIfExists(ImageVariantService.variantPath(path, width));
+            }
+        } catch (IOException e) {
+            log.warn("업로드 파일 삭제 실패: {}", fileUrl, e);
+        }
+    }
+
+    /**
+     * 요청된 업로드 파일 찾기 (/uploads/ 이후 경로)
+     * 크기별 변형이 아직 없으면 원본에서 생성하고, 이미지로 읽을 수 없는 원본이면 원본을 반환
+     */
+    public Optional<Path> findUploadedFile(String relativePath) {
+        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        if (relativePath.isEmpty() || !uploadPath.resolve(relativePath).normalize().startsWith(uploadPath)) {
+            return Optional.empty(); // 업로드 폴더 밖 경로 차단
+        }
+
+        Optional<Path> path = findRegularFile(relativePath);
+        if (path.isPresent()) {
+            return path;
+        }
+
+        String filename = relativePath.substring(relativePath.lastIndexOf('/') + 1);
+        String originalFilename = ImageVariantService.originalFilenameOf(filename);
+        if (originalFilename == null) {
+            return Optional.empty();
+        }
+        Optional<Path> foundOriginal =
+            findRegularFile(relativePath.substring(0, relativePath.length() - filename.length()) + originalFilename);
+        if (foundOriginal.isEmpty()) {
+            return Optional.empty();
+        }
+        Path original = foundOriginal.get();
+        if (!imageVariantService.ensureVariants(original)) {
+            return Optional.of(original);
+        }
+        Path variant = original.resolveSibling(filename);
+        return Files.isRegularFile(variant) ? Optional.of(variant) : Optional.of(original);
+    }
+
+    // resolvePath 로 찾은 평면 경로의 파일이 확인 직전에 샤딩 마이그레이션으로 옮겨졌으면 샤딩 경로에서 다시 확인
+    private Optional<Path> findRegularFile(String relativePath) {
+        Path path = resolvePath(relativePath);
+        if (Files.isRegularFile(path)) {
+            return Optional.of(path);
+        }
+        if (relativePath.contains("/")) {
+            return Optional.empty();
+        }
+        Path sharded = Paths.get(uploadDir).resolve(shardedPath(relativePath));
+        return Files.isRegularFile(sharded) ? Optional.of(sharded) : Optional.empty();
+    }
+
+    /**
+     * 업로드 경로(/uploads/ 이후)를 실제 파일 경로로 변환
+     * 예전 평면 경로(/uploads/<파일명>)는 그대로 찾고, 없으면 샤딩 디렉토리로 이동된 위치를 사용
+     */
+    public Path resolvePath(String relativePath) {
+        Path uploadPath = Paths.get(uploadDir);
+        Path path = uploadPath.resolve(relativePath);
+        if (relativePath.contains("/") || Files.exists(path)) {
+            return path;
+        }
+        return uploadPath.resolve(shardedPath(relativePath));
+    }
+
+    /**
+     * 샤딩 디렉토리 경로 (예: ab/cd/abcd1234....jpg)
+     * 한 디렉토리에 파일이 수백만 개 쌓이지 않도록 파일명 앞 4자리(16진수)로 2단계 분산
+     * (UUID/SHA-256 파일명은 그대로 사용하고, 그 외 파일명은 이름의 해시로 분산)
+     */
+    public static String shardedPath(String filename) {
+        String prefix = HEX_PREFIX.matcher(filename).find()
+            ? filename.substring(0, 4).toLowerCase()
+            : HexFormat.of().formatHex(sha256Of(filename), 0, 2);
+        return prefix.substring(0, 2) + "/" + prefix.substring(2, 4) + "/" + filename;
+    }
+
+    // 썸네일은 원본 URL로 저장하고, 화면에서는 ImageVariantService.url()로 크기별 변형을 사용
     public String getThumbnailUrl(List<String> imageUrls) {
         if (imageUrls == null || imageUrls.isEmpty()) {
             return null;
         }
         return imageUrls.get(0); // 첫 번째 이미지를 썸네일로
     }
+
+    // 업로드 디렉토리 생성
+    private Path createUploadDirectory() throws IOException {
+        Path uploadPath = Paths.get(uploadDir);
+        if (!Files.exists(uploadPath)) {
+            Files.createDirectories(uploadPath);
+        }
+        return uploadPath;
+    }
+
+    private String store(Path uploadPath, MultipartFile file) throws IOException {
+        if (CONTENT_ADDRESSED.equals(storageMode)) {
+            return storeContentAddressed(uploadPath, file);
+        }
+
+        // 고유한 파일명 생성
+        String uniqueFilename = UUID.randomUUID().toString() + extensionOf(file);
+        String relativePath = shardedPath(uniqueFilename);
+
+        // 파일 저장
+        Path filePath = uploadPath.resolve(relativePath);
+        Files.createDirectories(filePath.getParent());
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        imageVariantService.generateAsync(filePath);
+
+        // URL 생성 (웹에서 접근 가능한 경로)
+        return URL_PREFIX + relativePath;
+    }
+
+    /**
+     * 내용 주소 방식 저장
+     * 업로드 요청은 이미 임시 파일/메모리에 받아져 있으므로 먼저 읽기만 하여 SHA-256 을 계산하고,
+     * 같은 파일이 이미 있으면 쓰기를 생략한다. 새 파일은 임시 이름으로 쓴 뒤 원자적으로 이름을 바꿔
+     * 동시에 같은 파일이 올라와도 덜 쓰인 파일이 노출되지 않는다.
+     * stored_files 기록을 짧은 트랜잭션으로 먼저 커밋한 뒤 트랜잭션 밖에서 파일 존재를 확인하고 쓴다.
+     * 정리 작업(StoredFileService.collectUnreferenced)은 행 잠금을 쥔 채 파일을 지우므로, 그 사이의 기록은
+     * 커밋될 때까지 기다렸다가 새 행을 만들고 지워진 파일을 다시 쓴다. 기록이 먼저 커밋되면 updated_at 이 갱신되어
+     * 정리 대상에서 빠지므로, 존재 확인 후 파일이 지워져 쓰기를 건너뛴 파일이 사라지는 경합이 없다.
+     */
+    private String storeContentAddressed(Path uploadPath, MultipartFile file) throws IOException {
+        String relativePath = shardedPath(sha256(file) + extensionOf(file).toLowerCase());
+        Path filePath = uploadPath.resolve(relativePath);
+        String fileUrl = URL_PREFIX + relativePath;
+
+        storedFileRepository.registerUpload(fileUrl, file.getSize());
+        if (!Files.exists(filePath)) {
+            writeAtomically(uploadPath, filePath, file);
+            // 새 파일만 변형 생성 (이미 있던 파일은 변형도 이미 있음)
+            imageVariantService.generateAsync(filePath);
+        }
+        return fileUrl;
+    }
+
+    // 임시 이름으로 쓴 뒤 원자적으로 이름 변경
+    private void writeAtomically(Path uploadPath, Path filePath, MultipartFile file) throws IOException {
+        Files.createDirectories(filePath.getParent());
+        Path tempPath = uploadPath.resolve(".tmp-" + UUID.randomUUID());
+        try {
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, tempPath);
+            }
+            Files.move(tempPath, filePath, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private String sha256(MultipartFile file) throws IOException {
+        MessageDigest digest = sha256Digest();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static byte[] sha256Of(String value) {
+        return sha256Digest().digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String extensionOf(MultipartFile file) {
+        String originalFilename = file.getOriginalFilename();
+        if (originalFilename != null && originalFilename.contains(".")) {
+            return originalFilename.substring(originalFilename.lastIndexOf("."));
+        }
+        return "";
+    }
+
+    private boolean isContentAddressed(String fileUrl) {
+        return fileUrl.startsWith(URL_PREFIX)
+            && DIGEST_FILENAME.matcher(fileUrl.substring(fileUrl.lastIndexOf('/') + 1)).matches();
+    }
 }
@@ -0,0 +1,81 @@
+package com.example.retripbackend.SNS.service;
+
+import com.example.retripbackend.user.repository.UserRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * 팔로워 수 / 팔로잉 타임라인 백필 (일회성, 온라인)
+ * users.follower_count 와 timelines 는 도입 이후의 팔로우/게시글만 반영하므로,
+ * 기존 데이터가 있는 DB는 post.timeline.backfill-migration.enabled=true 로 한 번 기동해 채운다.
+ * 1. follower_count 를 follows 기준으로 다시 계산 (fan-out 대상 판단에 쓰이므로 먼저 실행)
+ * 2. 사용자마다 본인 게시글과 이미 팔로우 중인 작성자의 최근 게시글을 타임라인에 INSERT IGNORE
+ * 두 단계 모두 user_id 범위/배치 단위의 짧은 트랜잭션으로 실행하며, 다시 실행해도 결과가 같다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FollowBackfillMigrator {
+
+    private static final long CHUNK_SIZE = 1_000;
+    private static final int USER_BATCH_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final TimelineService timelineService;
+
+    @Value("${post.timeline.backfill-migration.enabled:false}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("follow-backfill-migration").start(this::migrate);
+        }
+    }
+
+    public void migrate() {
+        try {
+            recountFollowerCounts();
+            backfillTimelines();
+        } catch (RuntimeException e) {
+            log.error("팔로워 수/타임라인 백필 실패", e);
+        }
+    }
+
+    private void recountFollowerCounts() {
+        Long maxId = userRepository.findMaxUserId();
+        if (maxId == null) {
+            return;
+        }
+        int updated = 0;
+        for (long from = 0; from < maxId; from += CHUNK_SIZE) {
+            updated += userRepository.recountFollowerCounts(from, from + CHUNK_SIZE);
+        }
+        log.info("팔로워 수 재계산 완료: users={}", updated);
+    }
+
+    private void backfillTimelines() {
+        long afterId = 0;
+        int users = 0;
+        int entries = 0;
+        while (true) {
+            List<Long> userIds = userRepository.findUserIdsAfter(afterId, PageRequest.of(0, USER_BATCH_SIZE));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            for (Long userId : userIds) {
+                entries += timelineService.backfillUser(userId);
+            }
+            users += userIds.size();
+            afterId = userIds.get(userIds.size() - 1);
+            log.info("타임라인 백필 진행 중: users={}, entries={}", users, entries);
+        }
+        log.info("타임라인 백필 완료: users={}, entries={}", users, entries);
+    }
+}
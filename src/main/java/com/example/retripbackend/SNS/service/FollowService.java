@@ -3,6 +3,7 @@ package com.example.retripbackend.SNS.service;
 import com.example.retripbackend.SNS.entity.Follow;
 import com.example.retripbackend.SNS.repository.FollowRepository;
 import com.example.retripbackend.user.entity.User;
+import com.example.retripbackend.user.repository.UserRepository;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class FollowService {
 
     private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final TimelineService timelineService;
 
     // 팔로우 여부 확인
     public boolean isFollowing(User follower, User following) {
@@ -36,6 +39,10 @@ public class FollowService {
 
         Follow follow = Follow.of(follower, following);
         followRepository.save(follow);
+        userRepository.incrementFollowerCount(following.getUserId());
+
+        // 팔로잉 피드에 상대방의 최근 게시글 채우기
+        timelineService.onFollow(follower.getUserId(), following.getUserId());
     }
 
     // 언팔로우
@@ -45,6 +52,10 @@ public class FollowService {
             .orElseThrow(() -> new RuntimeException("팔로우 관계가 없습니다."));
 
         followRepository.delete(follow);
+        userRepository.decrementFollowerCount(following.getUserId());
+
+        // 팔로잉 피드에서 상대방 게시글 제거
+        timelineService.onUnfollow(follower.getUserId(), following.getUserId());
     }
 
     // 팔로워 목록 (나를 팔로우하는 사람들)
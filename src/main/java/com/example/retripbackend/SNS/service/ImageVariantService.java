@@ -0,0 +1,250 @@
+package com.example.retripbackend.SNS.service;
+
+import jakarta.annotation.PreDestroy;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 업로드 이미지 크기별 변형(썸네일) 생성
+ * 원본 옆에 "<원본 파일명>.w<너비>.jpg" 로 저장한다. (예: ab/cd/abcd.png → ab/cd/abcd.png.w320.jpg)
+ * URL이 원본에서 바로 계산되므로 DB에는 원본 URL만 두고, 템플릿은 url()/srcset()으로 크기를 고른다.
+ * - 업로드 시: 원본 저장 직후 백그라운드에서 생성
+ * - 요청 시: 아직 없거나 예전 업로드라 없으면 첫 요청에서 생성 (같은 원본 요청은 하나로 합침)
+ * 큰 원본은 디코딩 단계에서 서브샘플링하여 메모리와 CPU 사용을 줄이고,
+ * 휴대폰 사진의 EXIF Orientation 은 크기 변경 전에 적용한다. (변형 JPEG에는 EXIF가 없음)
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    public static final int[] WIDTHS = {320, 720, 1280};
+
+    private static final String URL_PREFIX = "/uploads/";
+    private static final Pattern VARIANT_FILENAME = Pattern.compile("^(.+)\\.w(\\d+)\\.jpg$");
+
+    private final Map<Path, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // 디코딩/리사이즈는 CPU 작업이므로 코어 수만큼만 동시에 실행
+    private final Semaphore permits = new Semaphore(Runtime.getRuntime().availableProcessors());
+
+    @Value("${file.image-variant.quality:0.8}")
+    private float quality;
+
+    @Value("${file.image-variant.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    // 템플릿용: 원본 URL → 지정 너비 변형 URL (업로드 파일이 아니면 원본 그대로)
+    public String url(String originalUrl, int width) {
+        if (!isUpload(originalUrl)) {
+            return originalUrl;
+        }
+        return originalUrl + ".w" + width + ".jpg";
+    }
+
+    // 템플릿용: srcset 속성 값
+    public String srcset(String originalUrl) {
+        if (!isUpload(originalUrl)) {
+            return null;
+        }
+        return Arrays.stream(WIDTHS)
+            .mapToObj(width -> url(originalUrl, width) + " " + width + "w")
+            .collect(Collectors.joining(", "));
+    }
+
+    // 변형 파일명이면 원본 파일명, 아니면 null
+    public static String originalFilenameOf(String variantFilename) {
+        Matcher matcher = VARIANT_FILENAME.matcher(variantFilename);
+        if (!matcher.matches() || !isSupportedWidth(Integer.parseInt(matcher.group(2)))) {
+            return null;
+        }
+        return matcher.group(1);
+    }
+
+    public static Path variantPath(Path original, int width) {
+        return original.resolveSibling(original.getFileName() + ".w" + width + ".jpg");
+    }
+
+    // 업로드 직후 백그라운드 생성
+    public void generateAsync(Path original) {
+        submit(original);
+    }
+
+    /**
+     * 모든 변형이 준비될 때까지 대기 (요청 시 생성)
+     * 요청 스레드가 무한정 묶이지 않도록 request-timeout-ms 까지만 기다림 (생성은 계속 진행)
+     *
+     * @return 이미지로 읽을 수 없거나 생성에 실패했거나 시간 안에 끝나지 않으면 false
+     */
+    public boolean ensureVariants(Path original) {
+        if (Arrays.stream(WIDTHS).allMatch(width -> Files.exists(variantPath(original, width)))) {
+            return true;
+        }
+        try {
+            return submit(original).get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("이미지 변형 대기 실패, 원본 응답: {}", original, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+
+    private CompletableFuture<Boolean> submit(Path original) {
+        CompletableFuture<Boolean> created = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inFlight.putIfAbsent(original, created);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            try {
+                created.complete(generate(original));
+            } catch (Throwable t) {
+                // OOM 등 Error 로 끝나도 기다리는 요청이 풀리도록 반드시 완료
+                created.complete(false);
+                log.error("이미지 변형 생성 중 오류: {}", original, t);
+                throw t;
+            } finally {
+                inFlight.remove(original, created);
+            }
+        });
+        return created;
+    }
+
+    private boolean generate(Path original) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            BufferedImage source = read(original, WIDTHS[WIDTHS.length - 1]);
+            if (source == null) {
+                return false;
+            }
+            for (int width : WIDTHS) {
+                write(resize(source, width), variantPath(original, width));
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("이미지 변형 생성 실패: {}", original, e);
+            return false;
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 가장 큰 변형 너비의 2배 이상이 유지되는 선에서 서브샘플링하여 디코딩 후 EXIF 방향대로 회전
+    private BufferedImage read(Path original, int maxWidth) throws IOException {
+        int orientation;
+        try (InputStream exif = Files.newInputStream(original)) {
+            orientation = ExifOrientation.read(exif);
+        }
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                // 회전 후 가로가 되는 변 기준
+                int width = ExifOrientation.swapsDimensions(orientation) ? reader.getHeight(0) : reader.getWidth(0);
+                int subsampling = Math.max(1, width / (maxWidth * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return ExifOrientation.apply(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 원본보다 크게 늘리지 않음. 투명 배경은 흰색으로 채워 JPEG로 저장
+    private BufferedImage resize(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, targetWidth, targetHeight);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // 임시 파일에 쓴 뒤 원자적으로 교체 (생성 중인 파일이 응답되지 않도록)
+    private void write(BufferedImage image, Path target) throws IOException {
+        Path temp = target.resolveSibling(".tmp-" + UUID.randomUUID());
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static boolean isSupportedWidth(int width) {
+        return Arrays.stream(WIDTHS).anyMatch(w -> w == width);
+    }
+
+    private boolean isUpload(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+}
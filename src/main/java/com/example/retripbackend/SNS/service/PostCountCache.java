@@ -0,0 +1,43 @@
+package com.example.retripbackend.SNS.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 게시글 총 개수 근사치 캐시
+ * 목록 조회는 Slice로 COUNT 없이 처리하고, 총 개수가 꼭 필요한 화면만 이 캐시를 통해
+ * TTL 동안 같은 COUNT 결과를 재사용한다. (최대 TTL 만큼 실제 값과 차이가 날 수 있음)
+ */
+@Component
+public class PostCountCache {
+
+    @Value("${post.count-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${post.count-cache.max-entries:1000}")
+    private int maxEntries;
+
+    private final Map<String, CachedCount> cache = new ConcurrentHashMap<>();
+
+    public long get(String key, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = cache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.count();
+        }
+
+        long count = loader.getAsLong();
+
+        // 검색어별로 키가 늘어나므로 상한을 넘으면 통째로 비움
+        if (cache.size() >= maxEntries) {
+            cache.clear();
+        }
+        cache.put(key, new CachedCount(count, now + ttlSeconds * 1000));
+        return count;
+    }
+
+    private record CachedCount(long count, long expiresAt) {}
+}
@@ -1,9 +1,15 @@
 package com.example.retripbackend.SNS.service;
 
+import com.example.retripbackend.SNS.dto.PostSummary;
 import com.example.retripbackend.SNS.entity.Post;
 import com.example.retripbackend.SNS.entity.PostLike;
 import com.example.retripbackend.SNS.repository.PostLikeRepository;
+import com.example.retripbackend.SNS.repository.PostRepository;
 import com.example.retripbackend.user.entity.User;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,12 +20,60 @@ import org.springframework.transaction.annotation.Transactional;
 public class PostLikeService {
 
     private final PostLikeRepository postLikeRepository;
+    private final PostRepository postRepository;
+    private final TrendingScoreService trendingScoreService;
+    private final FeedCache feedCache;
 
     // 좋아요 여부 확인
     public boolean isLiked(Post post, User user) {
         return postLikeRepository.existsByPostAndUser(post, user);
     }
 
+    // 목록 화면용 좋아요 여부 일괄 조회
+    // 게시글마다 isLiked를 호출하지 않고 페이지당 한 번의 IN 쿼리로 좋아요한 게시글 ID를 가져옴
+    public Set<Long> getLikedPostIds(User user, Collection<PostSummary> posts) {
+        if (user == null || posts == null || posts.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> postIds = posts.stream()
+            .map(PostSummary::postId)
+            .toList();
+        return new HashSet<>(postLikeRepository.findLikedPostIds(user, postIds));
+    }
+
+    /**
+     * 좋아요 토글 (게시글 엔티티를 로딩하지 않음)
+     * 1. 좋아요 삭제 시도 → 삭제되었으면 좋아요 수 -1
+     * 2. 삭제할 것이 없으면 INSERT IGNORE → 추가되었으면 좋아요 수 +1
+     * (post_id, user_id) 유니크 제약과 원자적 증감 UPDATE로 동시 클릭에도 좋아요 수가 어긋나지 않음
+     *
+     * @return 토글 후 좋아요 상태 (true: 좋아요, false: 취소)
+     */
+    @Transactional
+    public boolean toggleLike(Long postId, User user) {
+        Long userId = user.getUserId();
+
+        if (postLikeRepository.deleteByPostIdAndUserId(postId, userId) > 0) {
+            postRepository.decrementLikeCount(postId);
+            trendingScoreService.onLike(postId, -1);
+            feedCache.patch(postId, post -> post.withLikeCount(Math.max(0, post.likeCount() - 1)));
+            return false;
+        }
+
+        if (postLikeRepository.insertIgnore(postId, userId) > 0) {
+            postRepository.incrementLikeCount(postId);
+            trendingScoreService.onLike(postId, 1);
+            feedCache.patch(postId, post -> post.withLikeCount(post.likeCount() + 1));
+            return true;
+        }
+
+        // 추가된 행이 없으면 동시 요청으로 이미 좋아요된 상태이거나 게시글이 없는 경우
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("게시글을 찾을 수 없습니다.");
+        }
+        return true;
+    }
+
     // 좋아요
     @Transactional
     public void like(Post post, User user) {
@@ -31,8 +85,10 @@ public class PostLikeService {
         PostLike like = PostLike.of(post, user);
         postLikeRepository.save(like);
 
-        // 게시글의 좋아요 수 증가
-        post.incrementLikeCount();
+        // 게시글의 좋아요 수 증가 (원자적 UPDATE)
+        postRepository.incrementLikeCount(post.getPostId());
+        trendingScoreService.onLike(post.getPostId(), 1);
+        feedCache.patch(post.getPostId(), summary -> summary.withLikeCount(summary.likeCount() + 1));
     }
 
     // 좋아요 취소
@@ -43,7 +99,9 @@ public class PostLikeService {
 
         postLikeRepository.delete(like);
 
-        // 게시글의 좋아요 수 감소
-        post.decrementLikeCount();
+        // 게시글의 좋아요 수 감소 (원자적 UPDATE)
+        postRepository.decrementLikeCount(post.getPostId());
+        trendingScoreService.onLike(post.getPostId(), -1);
+        feedCache.patch(post.getPostId(), summary -> summary.withLikeCount(Math.max(0, summary.likeCount() - 1)));
     }
 }
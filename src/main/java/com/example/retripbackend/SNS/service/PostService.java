@@ -1,8 +1,12 @@
 package com.example.retripbackend.SNS.service;
 
+import com.example.retripbackend.SNS.dto.FeedCursor;
+import com.example.retripbackend.SNS.dto.FeedPage;
+import com.example.retripbackend.SNS.dto.PostSummary;
 import com.example.retripbackend.SNS.entity.Post;
 import com.example.retripbackend.SNS.entity.PostImage;
 import com.example.retripbackend.SNS.entity.Travel;
+import com.example.retripbackend.SNS.event.PostCreatedEvent;
 import com.example.retripbackend.SNS.repository.PostImageRepository;
 import com.example.retripbackend.SNS.repository.PostRepository;
 import com.example.retripbackend.SNS.service.FileStorageService;
@@ -11,15 +15,20 @@ import com.example.retripbackend.receipt.repository.ReceiptRepository;
 import com.example.retripbackend.receipt.service.ReceiptService;
 import com.example.retripbackend.user.entity.User;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -32,28 +41,56 @@ public class PostService {
     private final FileStorageService fileStorageService;
     private final ReceiptService receiptService;
     private final ReceiptRepository receiptRepository;
+    private final PostCountCache postCountCache;
+    private final PostViewCountBuffer postViewCountBuffer;
+    private final FeedCache feedCache;
+    private final TrendingScoreService trendingScoreService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final StoredFileService storedFileService;
 
-    // 게시글 피드 조회 (최신순)
-    public Page<Post> getLatestPosts(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return postRepository.findAllByOrderByCreatedAtDesc(pageable);
+    // 게시글 피드 조회 (최신순, 커서 기반)
+    // OFFSET 없이 마지막 게시글의 (createdAt, postId) 이후만 읽으므로 깊은 페이지도 첫 페이지와 비용이 같음
+    // 앞쪽 페이지는 FeedCache 에서 응답하고, 캐시 범위를 벗어난 커서만 DB 조회
+    public FeedPage<PostSummary> getLatestFeed(String cursor, int size) {
+        Optional<FeedCursor> after = FeedCursor.decode(cursor).filter(FeedCursor::isLatest);
+        return feedCache.getPage(FeedCache.LATEST, after, size, FeedCursor::latest,
+                () -> postRepository.findLatestSummaries(PageRequest.of(0, feedCache.getHeadSize() + 1)))
+            .orElseGet(() -> {
+                Pageable limit = PageRequest.of(0, size + 1);
+                List<PostSummary> posts = after
+                    .map(c -> postRepository.findLatestSummariesAfter(c.createdAt(), c.postId(), limit))
+                    .orElseGet(() -> postRepository.findLatestSummaries(limit));
+                return FeedPage.of(posts, size, FeedCursor::latest);
+            });
     }
 
-    // 게시글 피드 조회 (추천순)
-    public Page<Post> getRecommendedPosts(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return postRepository.findAllByOrderByLikeCountDescCreatedAtDesc(pageable);
+    // 게시글 피드 조회 (추천순, 커서 기반)
+    // 좋아요/댓글/조회수와 작성 시점을 반영한 trendingScore 순
+    public FeedPage<PostSummary> getRecommendedFeed(String cursor, int size) {
+        Optional<FeedCursor> after = FeedCursor.decode(cursor).filter(FeedCursor::isRecommended);
+        return feedCache.getPage(FeedCache.RECOMMEND, after, size, FeedCursor::recommended,
+                () -> postRepository.findRecommendedSummaries(PageRequest.of(0, feedCache.getHeadSize() + 1)))
+            .orElseGet(() -> {
+                Pageable limit = PageRequest.of(0, size + 1);
+                List<PostSummary> posts = after
+                    .map(c -> postRepository.findRecommendedSummariesAfter(c.trendingScore(), c.postId(), limit))
+                    .orElseGet(() -> postRepository.findRecommendedSummaries(limit));
+                return FeedPage.of(posts, size, FeedCursor::recommended);
+            });
     }
 
-    // 게시글 상세 조회
-    @Transactional
+    // 게시글 조회
     public Post getPostById(Long postId) {
-        Post post = postRepository.findById(postId)
+        return postRepository.findById(postId)
             .orElseThrow(() -> new RuntimeException("게시글을 찾을 수 없습니다."));
+    }
 
-        // 조회수 증가
-        post.incrementViewCount();
-
+    // 게시글 상세 페이지 조회 (조회수 증가 포함)
+    // 조회수는 즉시 UPDATE 하지 않고 버퍼에 모았다가 주기적으로 일괄 반영하므로 읽기 전용 트랜잭션으로 처리
+    public Post getPostForView(Long postId) {
+        Post post = getPostById(postId);
+        postViewCountBuffer.increment(postId);
         return post;
     }
 
@@ -63,9 +100,9 @@ public class PostService {
     }
 
     // 특정 사용자의 게시글 목록
-    public Page<Post> getUserPosts(User user, int page, int size) {
+    public Slice<PostSummary> getUserPosts(User user, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return postRepository.findByAuthorOrderByCreatedAtDesc(user, pageable);
+        return postRepository.findSummariesByAuthor(user, pageable);
     }
 
     // 특정 여행의 게시글 목록
@@ -92,8 +129,12 @@ public class PostService {
             .content(content)
             .imageUrl(thumbnailUrl) // 첫 번째 이미지를 썸네일로
             .build();
+        trendingScoreService.initialize(post);
         
         post = postRepository.save(post);
+        storedFileService.retain(post.getImageUrl()); // 썸네일도 별도 참조로 셈
+        // 커밋 후 팔로워 타임라인에 비동기 fan-out
+        eventPublisher.publishEvent(new PostCreatedEvent(post.getPostId(), author.getUserId(), post.getCreatedAt()));
         
         // PostImage 엔티티들 저장
         if (imageUrls != null && !imageUrls.isEmpty()) {
@@ -104,34 +145,56 @@ public class PostService {
                     .displayOrder(i)
                     .build();
                 postImageRepository.save(postImage);
+                storedFileService.retain(postImage.getImageUrl());
             }
         }
         
         return post;
     }
 
-    // 게시글 작성 (영수증별 이미지와 설명 포함)
-    @Transactional
+    /**
+     * 게시글 작성 (영수증별 이미지와 설명 포함)
+     * 1. 트랜잭션 밖에서 모든 이미지를 한 번씩만, 가상 스레드로 동시에 저장
+     * 2. 짧은 트랜잭션으로 Post / PostImage / Receipt 반영
+     * 3. 트랜잭션이 실패(롤백)하면 저장한 파일 삭제
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Post createPostWithReceipts(User author, Travel travel, String title, String content,
         Map<Long, MultipartFile[]> receiptImagesMap, Map<Long, String> receiptDescriptionsMap) throws IOException {
-        
-        // Post 생성 (전체 여행 요약 포함)
-        String thumbnailUrl = null;
-        
-        // 첫 번째 receipt의 첫 번째 이미지를 썸네일로 사용
-        if (receiptImagesMap != null && !receiptImagesMap.isEmpty()) {
-            for (Map.Entry<Long, MultipartFile[]> entry : receiptImagesMap.entrySet()) {
-                MultipartFile[] files = entry.getValue();
+
+        // 이미지가 있는 receipt만 업로드 대상
+        Map<Long, MultipartFile[]> uploads = new LinkedHashMap<>();
+        if (receiptImagesMap != null) {
+            receiptImagesMap.forEach((receiptId, files) -> {
                 if (files != null && files.length > 0 && files[0] != null && !files[0].isEmpty()) {
-                    List<String> imageUrls = fileStorageService.saveFiles(files);
-                    if (imageUrls != null && !imageUrls.isEmpty()) {
-                        thumbnailUrl = imageUrls.get(0);
-                        break;
-                    }
+                    uploads.put(receiptId, files);
                 }
-            }
+            });
         }
-        
+        Map<Long, List<String>> receiptImageUrls = fileStorageService.saveFilesConcurrently(uploads);
+
+        // 첫 번째 receipt의 첫 번째 이미지를 썸네일로 사용
+        String thumbnailUrl = receiptImageUrls.values().stream()
+            .filter(urls -> !urls.isEmpty())
+            .map(urls -> urls.get(0))
+            .findFirst()
+            .orElse(null);
+
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> savePostWithReceipts(
+                author, travel, title, content, thumbnailUrl, receiptImageUrls, receiptDescriptionsMap));
+        } catch (RuntimeException e) {
+            fileStorageService.deleteFiles(receiptImageUrls.values().stream()
+                .flatMap(List::stream)
+                .toList());
+            throw e;
+        }
+    }
+
+    // 이미 저장된 이미지 URL로 게시글과 영수증 정보 반영 (트랜잭션 안에서 호출)
+    private Post savePostWithReceipts(User author, Travel travel, String title, String content, String thumbnailUrl,
+        Map<Long, List<String>> receiptImageUrls, Map<Long, String> receiptDescriptionsMap) {
+
         Post post = Post.builder()
             .author(author)
             .travel(travel)
@@ -139,52 +202,48 @@ public class PostService {
             .content(content != null ? content : "")
             .imageUrl(thumbnailUrl)
             .build();
-        
+        trendingScoreService.initialize(post);
+
         post = postRepository.save(post);
-        
-        // 각 receipt별로 이미지와 설명 처리
-        if (receiptImagesMap != null || receiptDescriptionsMap != null) {
-            // travel의 모든 receipt를 순회
-            List<Receipt> receipts = receiptService.getReceiptsByTravel(travel);
-            
-            for (Receipt receipt : receipts) {
-                Long receiptId = receipt.getReceiptId();
-                
-                // 이미지 처리
-                if (receiptImagesMap != null && receiptImagesMap.containsKey(receiptId)) {
-                    MultipartFile[] files = receiptImagesMap.get(receiptId);
-                    if (files != null && files.length > 0 && files[0] != null && !files[0].isEmpty()) {
-                        List<String> imageUrls = fileStorageService.saveFiles(files);
-                        if (imageUrls != null && !imageUrls.isEmpty()) {
-                            // 첫 번째 이미지를 receipt의 imageUrl로 저장
-                            receipt.updateImageUrl(imageUrls.get(0));
-                            
-                            // 나머지 이미지는 PostImage로 저장
-                            for (int i = 1; i < imageUrls.size(); i++) {
-                                PostImage postImage = PostImage.builder()
-                                    .post(post)
-                                    .imageUrl(imageUrls.get(i))
-                                    .displayOrder(i - 1)
-                                    .build();
-                                postImageRepository.save(postImage);
-                            }
-                        }
-                    }
+        storedFileService.retain(post.getImageUrl()); // 썸네일도 별도 참조로 셈
+        // 커밋 후 팔로워 타임라인에 비동기 fan-out
+        eventPublisher.publishEvent(new PostCreatedEvent(post.getPostId(), author.getUserId(), post.getCreatedAt()));
+
+        // travel의 모든 receipt를 순회하며 이미지와 설명 처리
+        for (Receipt receipt : receiptService.getReceiptsByTravel(travel)) {
+            Long receiptId = receipt.getReceiptId();
+
+            // 이미지 처리
+            List<String> imageUrls = receiptImageUrls.get(receiptId);
+            if (imageUrls != null && !imageUrls.isEmpty()) {
+                // 첫 번째 이미지를 receipt의 imageUrl로 저장
+                storedFileService.replace(receipt.getImageUrl(), imageUrls.get(0));
+                receipt.updateImageUrl(imageUrls.get(0));
+
+                // 나머지 이미지는 PostImage로 저장
+                for (int i = 1; i < imageUrls.size(); i++) {
+                    PostImage postImage = PostImage.builder()
+                        .post(post)
+                        .imageUrl(imageUrls.get(i))
+                        .displayOrder(i - 1)
+                        .build();
+                    postImageRepository.save(postImage);
+                    storedFileService.retain(postImage.getImageUrl());
                 }
-                
-                // 설명 처리
-                if (receiptDescriptionsMap != null && receiptDescriptionsMap.containsKey(receiptId)) {
-                    String description = receiptDescriptionsMap.get(receiptId);
-                    if (description != null && !description.trim().isEmpty()) {
-                        receipt.updateDescription(description);
-                    }
+            }
+
+            // 설명 처리
+            if (receiptDescriptionsMap != null && receiptDescriptionsMap.containsKey(receiptId)) {
+                String description = receiptDescriptionsMap.get(receiptId);
+                if (description != null && !description.trim().isEmpty()) {
+                    receipt.updateDescription(description);
                 }
-                
-                // Receipt 저장
-                receiptRepository.save(receipt);
             }
+
+            // Receipt 저장
+            receiptRepository.save(receipt);
         }
-        
+
         return post;
     }
 
@@ -199,18 +258,25 @@ public class PostService {
         }
 
         post.update(title, content);
+        String updatedTitle = post.getTitle();
+        feedCache.patch(postId, summary -> summary.withTitle(updatedTitle)); // 커밋 후 반영
     }
 
     // 게시글 삭제
     @Transactional
     public void deletePost(Post post) {
+        // 게시글 썸네일/이미지 파일 참조 해제 (PostImage는 게시글과 함께 삭제됨)
+        storedFileService.release(post.getImageUrl());
+        postImageRepository.findByPostOrderByDisplayOrderAsc(post)
+            .forEach(image -> storedFileService.release(image.getImageUrl()));
         postRepository.delete(post);
+        feedCache.remove(post.getPostId());
     }
 
     // 도시별 게시글 조회
-    public Page<Post> getPostsByCity(String city, int page, int size) {
+    public Slice<PostSummary> getPostsByCity(String city, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return postRepository.findByCityOrderByCreatedAtDesc(city, pageable);
+        return postRepository.findSummariesByCity(city, pageable);
     }
 
     // ========== 검색 기능을 위한 새 메서드들 ==========
@@ -218,12 +284,19 @@ public class PostService {
 
     // 도시명으로 게시물 검색 (부분 일치)
      //SearchController의 검색 결과 표시에 사용
-    public Page<Post> searchPostsByCity(String cityKeyword, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return postRepository.findByTravel_CityContainingIgnoreCase(cityKeyword, pageable);
+    public Slice<PostSummary> searchPostsByCity(String cityKeyword, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return postRepository.searchSummariesByCity(cityKeyword, pageable);
     }
 
 
+    // 도시명 검색 결과 수 (근사치)
+    // 목록 조회는 COUNT 없이 Slice로 처리하고, 총 개수가 꼭 필요한 화면에서만 캐시된 값을 사용
+    public long getApproximatePostCountByCity(String cityKeyword) {
+        return postCountCache.get("city:" + cityKeyword.trim().toLowerCase(),
+            () -> postRepository.countByTravel_CityContainingIgnoreCase(cityKeyword));
+    }
+
      // 게시물이 많은 도시 상위 N개 조회
     public List<String> getTopCitiesByPostCount(int limit) {
         Pageable pageable = PageRequest.of(0, limit);
@@ -0,0 +1,120 @@
+package com.example.retripbackend.SNS.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 게시글 조회수 write-behind 버퍼
+ * 상세 페이지 조회마다 posts 행을 UPDATE(행 잠금)하지 않고 게시글별 증가분을 메모리에 누적한 뒤,
+ * 스케줄러가 주기적으로 "view_count = view_count + ?" 를 JDBC 배치로 한 번에 반영한다.
+ * 같은 UPDATE에서 조회수 증가분에 해당하는 트렌딩 점수도 함께 더한다.
+ * 누적(merge)과 flush 시 꺼내기(remove)는 같은 키에 대해 원자적이므로, flush 도중 들어온 조회도
+ * 꺼낸 값에 포함되거나 새 항목으로 남아 다음 주기에 반영된다. (유실/중복 없음)
+ * 종료 시(@PreDestroy) 남은 증가분을 마지막으로 flush 하므로 graceful shutdown 시 유실되지 않는다.
+ */
+@Slf4j
+@Component
+public class PostViewCountBuffer {
+
+    private static final String FLUSH_SQL =
+        "UPDATE posts SET view_count = view_count + ?, trending_score = " + TrendingScoreService.ADD_POINTS_EXPRESSION +
+            " WHERE post_id = ?";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TrendingScoreService trendingScoreService;
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private volatile long lastFlushedAt = System.currentTimeMillis();
+
+    public PostViewCountBuffer(JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        TrendingScoreService trendingScoreService,
+        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.trendingScoreService = trendingScoreService;
+        this.flushTimer = Timer.builder("post.view.flush")
+            .description("조회수 일괄 반영 소요 시간")
+            .register(meterRegistry);
+        this.flushFailures = Counter.builder("post.view.flush.failures")
+            .description("조회수 일괄 반영 실패 횟수")
+            .register(meterRegistry);
+        Gauge.builder("post.view.pending", this, PostViewCountBuffer::pendingCount)
+            .description("아직 DB에 반영되지 않은 조회수")
+            .register(meterRegistry);
+        Gauge.builder("post.view.flush.lag", this, buffer -> (System.currentTimeMillis() - buffer.lastFlushedAt) / 1000.0)
+            .description("마지막으로 성공한 flush 이후 경과 시간")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    // 조회수 1 증가 (메모리에만 누적)
+    public void increment(Long postId) {
+        pending.merge(postId, 1L, Long::sum);
+    }
+
+    // 누적된 조회수를 DB에 일괄 반영
+    @Scheduled(fixedDelayString = "${post.view-count.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        // 키마다 누적값을 통째로 꺼냄 (꺼낸 뒤의 조회는 새 항목으로 쌓임, 맵도 매 주기 비워짐)
+        List<Object[]> batch = new ArrayList<>();
+        for (Long postId : pending.keySet()) {
+            Long delta = pending.remove(postId);
+            if (delta != null && delta > 0) {
+                batch.add(new Object[]{delta, postId});
+            }
+        }
+
+        if (batch.isEmpty()) {
+            lastFlushedAt = System.currentTimeMillis();
+            return;
+        }
+
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batch, BATCH_SIZE, (ps, row) -> {
+                    long delta = (Long) row[0];
+                    ps.setLong(1, delta);
+                    ps.setDouble(2, trendingScoreService.viewPoints(delta));
+                    ps.setLong(3, (Long) row[1]);
+                })));
+            lastFlushedAt = System.currentTimeMillis();
+            log.debug("조회수 반영 완료: posts={}", batch.size());
+        } catch (DataAccessException e) {
+            // 트랜잭션이 롤백되었으므로 증가분을 버퍼에 되돌려 다음 주기에 재시도
+            batch.forEach(row -> pending.merge((Long) row[1], (Long) row[0], Long::sum));
+            flushFailures.increment();
+            log.error("조회수 반영 실패, 다음 주기에 재시도: posts={}", batch.size(), e);
+        }
+    }
+
+    // 종료 직전 남은 조회수 반영
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private long pendingCount() {
+        return pending.values().stream()
+            .mapToLong(Long::longValue)
+            .sum();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.retripbackend.SNS.service;
+
+import com.example.retripbackend.SNS.repository.StoredFileRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 업로드 파일 참조 수 관리
+ * Post.imageUrl(썸네일) / PostImage / Receipt.imageUrl / 분석 작업이 파일을 참조하거나 놓을 때 호출하며,
+ * 호출 측 트랜잭션에 참여한다.
+ * (UUID 방식으로 저장된 기존 파일은 stored_files 에 없으므로 아무 일도 하지 않음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StoredFileService {
+
+    private static final int GC_BATCH_SIZE = 100;
+
+    private final StoredFileRepository storedFileRepository;
+    private final FileStorageService fileStorageService;
+
+    @Value("${file.gc-grace-minutes:60}")
+    private long gcGraceMinutes;
+
+    @Value("${file.ref-count-recount.enabled:false}")
+    private boolean recountOnReady;
+
+    // 파일 참조 추가
+    public void retain(String fileUrl) {
+        if (fileUrl != null) {
+            storedFileRepository.incrementRefCount(fileUrl);
+        }
+    }
+
+    // 파일 참조 해제 (0이 되어도 바로 지우지 않고 정리 작업에서 삭제)
+    public void release(String fileUrl) {
+        if (fileUrl != null) {
+            storedFileRepository.decrementRefCount(fileUrl);
+        }
+    }
+
+    // 참조가 바뀔 때 (기존 참조 해제 + 새 참조 추가)
+    public void replace(String oldFileUrl, String newFileUrl) {
+        if (oldFileUrl != null && oldFileUrl.equals(newFileUrl)) {
+            return;
+        }
+        release(oldFileUrl);
+        retain(newFileUrl);
+    }
+
+    /**
+     * 참조 수 재계산 (일회성)
+     * 게시글 썸네일을 참조로 세기 전에 만들어진 게시글이 있으면 file.ref-count-recount.enabled=true 로 한 번 기동해
+     * 실제 참조 기준으로 ref_count 를 맞춘다. 업로드가 적은 시간에 실행할 것
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recountOnReady() {
+        if (recountOnReady) {
+            int updated = storedFileRepository.recountReferences();
+            log.info("업로드 파일 참조 수 재계산 완료: files={}", updated);
+        }
+    }
+
+    /**
+     * 참조 없는 파일 정리
+     * 업로드 직후 아직 게시글 트랜잭션이 커밋되지 않은 파일이나 롤백으로 남은 파일은
+     * refCount가 0이므로, 마지막 업로드 이후 유예 시간이 지난 것만 삭제한다.
+     * 파일은 행을 지운 트랜잭션이 커밋되기 전에 지우므로, 그 사이 같은 파일을 올린 업로드는
+     * registerUpload 에서 행 잠금을 기다렸다가 커밋 후 파일이 없음을 보고 다시 쓴다.
+     * 먼저 커밋된 업로드는 updated_at 이 갱신되어 삭제 조건에서 빠진다. (FileStorageService 참고)
+     */
+    @Scheduled(fixedDelayString = "${file.gc-interval-ms:3600000}")
+    public void collectUnreferenced() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(gcGraceMinutes);
+        List<String> fileUrls = storedFileRepository.findUnreferencedFileUrls(cutoff, PageRequest.of(0, GC_BATCH_SIZE));
+        for (String fileUrl : fileUrls) {
+            if (storedFileRepository.deleteIfUnreferenced(fileUrl, cutoff) > 0) {
+                fileStorageService.deleteStoredFile(fileUrl);
+            }
+        }
+        if (!fileUrls.isEmpty()) {
+            log.info("참조 없는 업로드 파일 정리: files={}", fileUrls.size());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.retripbackend.SNS.service;
+
+import com.example.retripbackend.SNS.dto.FeedCursor;
+import com.example.retripbackend.SNS.dto.FeedPage;
+import com.example.retripbackend.SNS.dto.PostSummary;
+import com.example.retripbackend.SNS.event.PostCreatedEvent;
+import com.example.retripbackend.SNS.repository.FollowRepository;
+import com.example.retripbackend.SNS.repository.PostRepository;
+import com.example.retripbackend.SNS.repository.TimelineRepository;
+import com.example.retripbackend.user.entity.User;
+import com.example.retripbackend.user.repository.UserRepository;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 팔로잉 피드 (fan-out-on-write 타임라인)
+ * - 쓰기: 게시글 작성이 커밋되면 별도 스레드에서 팔로워 ID를 배치 단위로 읽어 timelines 에 INSERT
+ * - 읽기: 내 타임라인을 (user_id, post_created_at, post_id) 인덱스로 범위 조회 (follows JOIN 없음)
+ * 팔로워가 매우 많은 작성자는 fan-out 비용이 크므로 기록하지 않고, 조회 시 해당 작성자의 게시글을
+ * 작성자 인덱스로 직접 읽어(pull) 타임라인 결과와 병합한다.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class TimelineService {
+
+    private static final String INSERT_SQL =
+        "INSERT IGNORE INTO timelines (user_id, post_id, author_id, post_created_at) VALUES (?, ?, ?, ?)";
+
+    // 병합 시 정렬 순서 (최신순 커서와 동일)
+    private static final Comparator<PostSummary> LATEST_FIRST = Comparator
+        .comparing(PostSummary::createdAt, Comparator.reverseOrder())
+        .thenComparing(PostSummary::postId, Comparator.reverseOrder());
+
+    private final TimelineRepository timelineRepository;
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${post.timeline.fanout-batch-size:1000}")
+    private int fanoutBatchSize;
+
+    @Value("${post.timeline.fanout-max-followers:10000}")
+    private int fanoutMaxFollowers;
+
+    @Value("${post.timeline.backfill-size:20}")
+    private int backfillSize;
+
+    public TimelineService(TimelineRepository timelineRepository,
+        FollowRepository followRepository,
+        PostRepository postRepository,
+        UserRepository userRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager) {
+        this.timelineRepository = timelineRepository;
+        this.followRepository = followRepository;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // 팔로잉 피드 조회 (최신순, 커서 기반)
+    public FeedPage<PostSummary> getFollowingFeed(User user, String cursor, int size) {
+        Long userId = user.getUserId();
+        Pageable limit = PageRequest.of(0, size + 1);
+        Optional<FeedCursor> after = FeedCursor.decode(cursor).filter(FeedCursor::isLatest);
+
+        List<PostSummary> posts = after
+            .map(c -> timelineRepository.findTimelineAfter(userId, c.createdAt(), c.postId(), limit))
+            .orElseGet(() -> timelineRepository.findTimeline(userId, limit));
+
+        // fan-out 대상에서 제외된 작성자의 게시글은 조회 시점에 가져와 병합
+        List<Long> pulledAuthorIds = followRepository.findFollowingIdsWithFollowerCountOver(userId, fanoutMaxFollowers);
+        if (!pulledAuthorIds.isEmpty()) {
+            List<PostSummary> pulled = after
+                .map(c -> postRepository.findLatestSummariesByAuthorsAfter(pulledAuthorIds, c.createdAt(), c.postId(), limit))
+                .orElseGet(() -> postRepository.findLatestSummariesByAuthors(pulledAuthorIds, limit));
+            posts = merge(posts, pulled, size + 1);
+        }
+
+        return FeedPage.of(posts, size, FeedCursor::latest);
+    }
+
+    /**
+     * 게시글 작성 커밋 후 팔로워 타임라인에 fan-out
+     * 팔로워를 follower_id 순으로 배치 단위로 읽어 배치마다 짧은 트랜잭션으로 INSERT 하므로
+     * 팔로워가 많아도 긴 트랜잭션이나 대용량 메모리 적재가 발생하지 않는다.
+     */
+    @Async("timelineExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void fanOut(PostCreatedEvent event) {
+        Timestamp createdAt = Timestamp.valueOf(event.createdAt());
+
+        // 작성자 본인 타임라인에는 항상 기록
+        insert(List.of(event.authorId()), event, createdAt);
+
+        int followerCount = userRepository.findFollowerCount(event.authorId());
+        if (followerCount > fanoutMaxFollowers) {
+            log.debug("팔로워 수가 많아 fan-out 생략 (조회 시 pull): authorId={}, followers={}",
+                event.authorId(), followerCount);
+            return;
+        }
+
+        Pageable batch = PageRequest.of(0, fanoutBatchSize);
+        long afterId = 0;
+        int total = 0;
+        while (true) {
+            List<Long> followerIds = followRepository.findFollowerIdsAfter(event.authorId(), afterId, batch);
+            if (followerIds.isEmpty()) {
+                break;
+            }
+            insert(followerIds, event, createdAt);
+            total += followerIds.size();
+            afterId = followerIds.get(followerIds.size() - 1);
+            if (followerIds.size() < fanoutBatchSize) {
+                break;
+            }
+        }
+        log.debug("타임라인 fan-out 완료: postId={}, followers={}", event.postId(), total);
+    }
+
+    // 팔로우 시 상대방의 최근 게시글을 타임라인에 채움 (pull 대상 작성자는 제외)
+    @Transactional
+    public void onFollow(Long followerId, Long followingId) {
+        if (userRepository.findFollowerCount(followingId) > fanoutMaxFollowers) {
+            return;
+        }
+        timelineRepository.backfill(followerId, followingId, backfillSize);
+    }
+
+    // 기존 팔로우 관계로 타임라인 채우기 (본인 게시글 + fan-out 대상 팔로잉의 최근 게시글, 마이그레이션용)
+    @Transactional
+    public int backfillUser(Long userId) {
+        int inserted = timelineRepository.backfill(userId, userId, backfillSize);
+        for (Long followingId : followRepository.findFollowingIdsWithFollowerCountAtMost(userId, fanoutMaxFollowers)) {
+            inserted += timelineRepository.backfill(userId, followingId, backfillSize);
+        }
+        return inserted;
+    }
+
+    // 언팔로우 시 상대방 게시글을 타임라인에서 제거
+    @Transactional
+    public void onUnfollow(Long followerId, Long followingId) {
+        timelineRepository.deleteByUserIdAndAuthorId(followerId, followingId);
+    }
+
+    private void insert(List<Long> userIds, PostCreatedEvent event, Timestamp createdAt) {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.batchUpdate(INSERT_SQL, userIds, userIds.size(), (ps, userId) -> {
+                ps.setLong(1, userId);
+                ps.setLong(2, event.postId());
+                ps.setLong(3, event.authorId());
+                ps.setTimestamp(4, createdAt);
+            }));
+    }
+
+    // 두 목록을 최신순으로 병합 (임계값 변경 전후로 양쪽에 있을 수 있는 게시글은 한 번만)
+    private List<PostSummary> merge(List<PostSummary> timeline, List<PostSummary> pulled, int limit) {
+        Map<Long, PostSummary> byId = new LinkedHashMap<>();
+        timeline.forEach(post -> byId.put(post.postId(), post));
+        pulled.forEach(post -> byId.putIfAbsent(post.postId(), post));
+        List<PostSummary> merged = new ArrayList<>(byId.values());
+        merged.sort(LATEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class TravelService {
 
     private final TravelRepository travelRepository;
+    private final StoredFileService storedFileService;
 
 
     //사용자의 여행 목록 조회 (최신순)
@@ -30,6 +31,25 @@ public class TravelService {
     }
 
 
+    // 영수증을 저장할 여행 조회
+    // travelId가 있으면 본인 여행인지 확인하고, 없으면 사용자의 최근 여행을 사용
+    public Travel getTravelForReceipt(User user, Long travelId) {
+        if (travelId == null) {
+            List<Travel> userTravels = getUserTravels(user);
+            if (userTravels.isEmpty()) {
+                throw new IllegalArgumentException("여행 정보가 없습니다. 먼저 가계부를 생성해주세요.");
+            }
+            return userTravels.get(0);
+        }
+
+        Travel travel = getTravelById(travelId);
+        if (!travel.isOwner(user)) {
+            throw new IllegalArgumentException("권한이 없는 여행입니다.");
+        }
+        return travel;
+    }
+
+
     //여행 생성 (현재는 SNS에서 직접 생성, 추후 가계부 연동 시 수정 예정)
     @Transactional
     public Travel createTravel(User user, String country, String city, String title,
@@ -73,6 +93,8 @@ public class TravelService {
             throw new IllegalArgumentException("여행을 삭제할 권한이 없습니다.");
         }
 
+        // 영수증 이미지 파일 참조 해제 (영수증은 여행과 함께 삭제됨)
+        travel.getReceipts().forEach(receipt -> storedFileService.release(receipt.getImageUrl()));
         travelRepository.delete(travel);
     }
 
@@ -0,0 +1,114 @@
+package com.example.retripbackend.SNS.service;
+
+import com.example.retripbackend.SNS.entity.Post;
+import com.example.retripbackend.config.TrendingConfig;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 추천순(트렌딩) 점수 관리
+ * 경과 시간에 따라 모든 게시글 점수를 매번 다시 깎는 대신, 작성 시각이 늦을수록 큰 시간 가중치
+ * (2 ^ 지수, 지수 = (작성 시각 - epoch) / 반감기)를 참여 점수에 곱한 값으로 정렬한다.
+ * 가중치 자체는 반감기마다 2배가 되어 몇 년이면 double 범위를 넘으므로, 점수는 log2 공간에 저장한다.
+ *   trending_score = 지수 + log2(참여 점수)
+ * log2 는 단조 증가이므로 "참여 점수 * 2^(-경과시간/반감기)" 와 정렬 순서가 같고, 지수는 시간에 비례해
+ * 천천히 커질 뿐이라(반감기 48시간 기준 1년에 약 183) epoch 를 옮길 필요가 없다.
+ * 좋아요/댓글/조회 이벤트는 ADD_POINTS_EXPRESSION 으로 한 UPDATE 안에서 원자적으로 반영되고,
+ * 주기적인 재계산 작업은 집계 컬럼 기준으로 점수를 다시 맞추고, 설정 변경을 반영한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrendingScoreService {
+
+    // log2 에 0 이하가 들어가지 않도록 하는 참여 점수 하한
+    private static final double MIN_POINTS = 1e-9;
+
+    /**
+     * 참여 점수 ? 를 더한 새 trending_score (log2 공간)
+     * log2(2^지수 * p + 2^지수 * ?) = 지수 + log2(p + ?), p = 2^(trending_score - 지수)
+     * p 는 참여 점수 크기이므로 POW 가 넘칠 일이 없음 (trending_weight 컬럼에 지수를 저장)
+     */
+    public static final String ADD_POINTS_EXPRESSION =
+        "trending_weight + LOG2(GREATEST(POW(2, trending_score - trending_weight) + ?, " + MIN_POINTS + "))";
+
+    private static final String ADD_POINTS_SQL =
+        "UPDATE posts SET trending_score = " + ADD_POINTS_EXPRESSION + " WHERE post_id = ?";
+
+    // MySQL은 SET 절을 왼쪽부터 평가하므로 trending_score 계산에 새 지수가 사용됨
+    private static final String RESCORE_SQL = """
+        UPDATE posts
+           SET trending_weight = TIMESTAMPDIFF(SECOND, ?, created_at) / ?,
+               trending_score = trending_weight
+                   + LOG2(GREATEST(like_count * ? + comment_count * ? + view_count * ? + ?, %s))
+         WHERE post_id > ? AND post_id <= ?
+        """.formatted(MIN_POINTS);
+    private static final int RESCORE_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrendingConfig trendingConfig;
+
+    // 작성 시각 기준 시간 가중치의 지수 (log2 가중치)
+    private double exponentOf(LocalDateTime createdAt) {
+        double hours = Duration.between(trendingConfig.getEpoch(), createdAt).toSeconds() / 3600.0;
+        return hours / trendingConfig.getHalfLifeHours();
+    }
+
+    // 새 게시글의 지수와 기본 점수 설정 (저장 전에 호출)
+    public void initialize(Post post) {
+        double exponent = exponentOf(LocalDateTime.now());
+        post.initTrending(exponent, exponent + log2(Math.max(trendingConfig.getBaseScore(), MIN_POINTS)));
+    }
+
+    // 좋아요 추가(+1)/취소(-1) 반영
+    public void onLike(Long postId, int delta) {
+        addPoints(postId, delta * trendingConfig.getLikeWeight());
+    }
+
+    // 댓글 작성(+1)/삭제(-1) 반영
+    public void onComment(Long postId, int delta) {
+        addPoints(postId, delta * trendingConfig.getCommentWeight());
+    }
+
+    // 조회수 증가분의 점수 (조회수 flush 시 ADD_POINTS_EXPRESSION 에 사용)
+    public double viewPoints(long views) {
+        return views * trendingConfig.getViewWeight();
+    }
+
+    /**
+     * 전체 게시글 점수 재계산
+     * 한 번에 전체 테이블을 잠그지 않도록 post_id 범위 단위로 나누어 각각 짧은 UPDATE로 실행
+     * (이전의 2^지수 가중치로 저장된 점수도 첫 재계산에서 log2 공간으로 바뀜)
+     */
+    @Scheduled(fixedDelayString = "${post.trending.rescore-interval-ms:600000}")
+    public void rescoreAll() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(post_id) FROM posts", Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        double halfLifeSeconds = trendingConfig.getHalfLifeHours() * 3600;
+        int updated = 0;
+        for (long from = 0; from < maxId; from += RESCORE_CHUNK_SIZE) {
+            updated += jdbcTemplate.update(RESCORE_SQL,
+                trendingConfig.getEpoch(), halfLifeSeconds,
+                trendingConfig.getLikeWeight(), trendingConfig.getCommentWeight(),
+                trendingConfig.getViewWeight(), trendingConfig.getBaseScore(),
+                from, from + RESCORE_CHUNK_SIZE);
+        }
+        log.debug("트렌딩 점수 재계산 완료: posts={}", updated);
+    }
+
+    private void addPoints(Long postId, double points) {
+        jdbcTemplate.update(ADD_POINTS_SQL, points, postId);
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.retripbackend.SNS.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 업로드 폴더 샤딩 마이그레이션 (온라인)
+ * file.shard-migration.enabled=true 로 기동하면 백그라운드에서 업로드 폴더 최상위의 파일을
+ * 샤딩 디렉토리(ab/cd/<파일명>)로 옮긴다. 서비스 중에도 실행할 수 있도록
+ * - 파일마다 같은 파일시스템 안에서 원자적 이동(rename)만 수행하고
+ * - 일정 개수마다 잠시 쉬어 디스크 I/O를 독점하지 않는다.
+ * DB에 저장된 기존 URL(/uploads/<파일명>)은 바꾸지 않으며, 요청 시 평면 경로 → 샤딩 경로 순으로 찾는다.
+ * 평면 경로를 확인한 직후 파일이 옮겨질 수 있으므로, 찾은 파일이 사라졌으면 샤딩 경로에서 다시 찾는다.
+ * (FileStorageService.findUploadedFile, UploadController 참고)
+ */
+@Slf4j
+@Component
+public class UploadShardMigrator {
+
+    @Value("${file.upload-dir:./uploads}")
+    private String uploadDir;
+
+    @Value("${file.shard-migration.enabled:false}")
+    private boolean enabled;
+
+    @Value("${file.shard-migration.batch-size:500}")
+    private int batchSize;
+
+    @Value("${file.shard-migration.pause-ms:200}")
+    private long pauseMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("upload-shard-migration").start(this::migrate);
+        }
+    }
+
+    // 최상위 파일을 샤딩 디렉토리로 이동하고 이동한 파일 수 반환
+    public int migrate() {
+        Path uploadPath = Paths.get(uploadDir);
+        if (!Files.isDirectory(uploadPath)) {
+            return 0;
+        }
+
+        int moved = 0;
+        int failed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadPath, Files::isRegularFile)) {
+            for (Path source : files) {
+                String filename = source.getFileName().toString();
+                if (filename.startsWith(".")) {
+                    continue; // 저장 중인 임시 파일 등
+                }
+                try {
+                    Path target = uploadPath.resolve(FileStorageService.shardedPath(filename));
+                    Files.createDirectories(target.getParent());
+                    Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                    moved++;
+                } catch (FileAlreadyExistsException e) {
+                    // 같은 이름이 이미 샤딩 위치에 있으면 (내용 주소 파일 등) 평면 파일은 중복
+                    Files.deleteIfExists(source);
+                } catch (IOException e) {
+                    failed++;
+                    log.warn("업로드 파일 이동 실패: {}", source, e);
+                }
+                if (moved > 0 && moved % batchSize == 0) {
+                    log.info("업로드 폴더 샤딩 진행 중: moved={}", moved);
+                    Thread.sleep(pauseMs);
+                }
+            }
+        } catch (IOException e) {
+            log.error("업로드 폴더 샤딩 실패: moved={}", moved, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("업로드 폴더 샤딩 중단: moved={}", moved);
+        }
+
+        log.info("업로드 폴더 샤딩 완료: moved={}, failed={}", moved, failed);
+        return moved;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.retripbackend.ai.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -7,10 +8,14 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class WebClientConfig {
 
+    // 부하 테스트 시 로컬 가짜 Gemini 서버(FakeGeminiServer)로 바꿔 실제 쿼터를 쓰지 않음
+    @Value("${gemini.base-url:https://generativelanguage.googleapis.com}")
+    private String baseUrl;
+
     @Bean
     public WebClient webClient() {
         return WebClient.builder()
-            .baseUrl("https://generativelanguage.googleapis.com")
+            .baseUrl(baseUrl)
             .build();
     }
-}
\ No newline at end of file
+}
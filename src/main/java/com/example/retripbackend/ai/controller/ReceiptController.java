@@ -1,30 +1,43 @@
 package com.example.retripbackend.ai.controller;
 
+import com.example.retripbackend.ai.entity.ReceiptAnalysisJob;
+import com.example.retripbackend.ai.exception.GeminiUnavailableException;
 import com.example.retripbackend.ai.service.GeminiService;
+import com.example.retripbackend.ai.service.ReceiptAnalysisJobService;
 import com.example.retripbackend.receipt.entity.Receipt;
 import com.example.retripbackend.receipt.service.ReceiptService;
 import com.example.retripbackend.SNS.entity.Travel;
 import com.example.retripbackend.SNS.service.TravelService;
 import com.example.retripbackend.user.entity.User;
 import com.example.retripbackend.user.service.CustomUserDetailsService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
-import java.util.Base64;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Controller
@@ -35,6 +48,14 @@ public class ReceiptController {
     private final GeminiService geminiService;
     private final ReceiptService receiptService;
     private final TravelService travelService;
+    private final ReceiptAnalysisJobService receiptAnalysisJobService;
+    private final Scheduler receiptPersistenceScheduler;
+
+    @Value("${receipt.analysis.stream-timeout-ms:600000}")
+    private long streamTimeoutMs;
+
+    @Value("${receipt.analysis.api-timeout-ms:390000}")
+    private long apiTimeoutMs;
 
     /**
      * 영수증 분석 페이지
@@ -59,13 +80,9 @@ public class ReceiptController {
                 return "receipt/analyze";
             }
 
-            // 파일을 Base64로 변환
-            // Base64: 바이너리 데이터(이미지, 파일)를 텍스트로 인코딩하는 방식
-            String base64Image = Base64.getEncoder()
-                .encodeToString(file.getBytes());
-
             // GeminiService를 통해 영수증 분석
-            String result = geminiService.analyzeReceipt(base64Image);
+            // (Base64 변환은 GeminiService에서 이미지를 줄이고 다시 압축한 뒤 수행)
+            String result = geminiService.analyzeReceipt(file.getBytes());
 
             model.addAttribute("result", result);
             model.addAttribute("fileName", file.getOriginalFilename());
@@ -90,109 +107,243 @@ public class ReceiptController {
      * 2. 분석 결과를 Receipt 엔티티에 저장
      * 이유: 프론트엔드에서 바로 사용할 수 있도록 하여 에러 처리와 데이터 접근을 용이하게 함
      * 그리고 분석 결과를 DB에 저장하여 영구 보관
+     *
+     * Mono를 반환하므로 Gemini 응답을 기다리는 동안 요청 스레드는 반환되고,
+     * 분석이 끝나면 Receipt 저장(JPA)만 receiptPersistenceScheduler 의 제한된 스레드에서 실행
+     * (동시에 진행 중인 분석 수가 Tomcat 스레드 수에 묶이지 않음)
      */
     @PostMapping("/analyze/api")
     @ResponseBody
-    public ResponseEntity<Map<String, Object>> analyzeReceiptApi(
+    public Mono<ResponseEntity<Map<String, Object>>> analyzeReceiptApi(
         @RequestParam("file") MultipartFile file,
         @RequestParam(required = false) Long travelId,
         @AuthenticationPrincipal CustomUserDetailsService.CustomUserDetails userDetails) {
-        Map<String, Object> response = new HashMap<>();
-        ObjectMapper objectMapper = new ObjectMapper();
-        
-        try {
-            // 파일 검증
-            if (file.isEmpty()) {
-                response.put("success", false);
-                response.put("error", "파일을 선택해주세요.");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            // 파일을 Base64로 변환
-            String base64Image = Base64.getEncoder()
-                .encodeToString(file.getBytes());
+        // 파일 검증
+        if (file.isEmpty()) {
+            return Mono.just(errorResponse(HttpStatus.BAD_REQUEST, "파일을 선택해주세요."));
+        }
 
-            // GeminiService를 통해 영수증 분석 (JSON 문자열 반환)
-            String resultJsonString = geminiService.analyzeReceipt(base64Image);
+        User user = userDetails.getUser();
+        String fileName = file.getOriginalFilename();
+        byte[] image;
+        try {
+            image = file.getBytes();
+        } catch (IOException e) {
+            log.error("영수증 파일 읽기 실패: ", e);
+            return Mono.just(errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "영수증 분석 중 오류가 발생했습니다: " + e.getMessage()));
+        }
 
-            // JSON 문자열을 객체로 파싱
-            Map<String, Object> resultMap;
-            try {
-                // 마크다운 코드 블록 제거 (Gemini가 ```json ... ``` 형식으로 반환할 수 있음)
-                String cleanedJson = resultJsonString.trim();
-                if (cleanedJson.startsWith("```json")) {
-                    cleanedJson = cleanedJson.substring(7);
-                }
-                if (cleanedJson.startsWith("```")) {
-                    cleanedJson = cleanedJson.substring(3);
-                }
-                if (cleanedJson.endsWith("```")) {
-                    cleanedJson = cleanedJson.substring(0, cleanedJson.length() - 3);
-                }
-                cleanedJson = cleanedJson.trim();
-                
-                // JSON 문자열을 Map으로 파싱
-                @SuppressWarnings("unchecked")
-                Map<String, Object> parsedMap = (Map<String, Object>) objectMapper.readValue(cleanedJson, Map.class);
-                resultMap = parsedMap;
-                log.debug("JSON 파싱 성공");
-                
+        return geminiService.analyze(image)
+            .publishOn(receiptPersistenceScheduler)
+            .map(analysis -> {
                 // 분석 결과를 DB에 저장
-                User user = userDetails.getUser();
-                Travel travel;
-                
-                if (travelId != null) {
-                    // travelId가 제공된 경우 해당 Travel 조회
-                    travel = travelService.getTravelById(travelId);
-                    
-                    // 권한 체크: 본인의 Travel인지 확인
-                    if (!travel.isOwner(user)) {
-                        log.warn("권한 없는 Travel 접근 시도: travelId={}, userId={}", travelId, user.getUserId());
-                        throw new IllegalArgumentException("권한이 없는 여행입니다.");
-                    }
-                } else {
-                    // travelId가 없으면 사용자의 최근 Travel 찾기
-                    var userTravels = travelService.getUserTravels(user);
-                    if (userTravels.isEmpty()) {
-                        throw new IllegalArgumentException("여행 정보가 없습니다. 먼저 가계부를 생성해주세요.");
-                    }
-                    travel = userTravels.get(0);
-                }
-                
-                // Receipt 저장
+                Travel travel = travelService.getTravelForReceipt(user, travelId);
                 Receipt savedReceipt = receiptService.saveReceiptFromAnalysis(
                     travel,
-                    resultMap,
+                    analysis,
                     null  // 이미지 URL은 추후 파일 저장 기능 구현 시 추가
                 );
-                
-                // 저장된 Receipt ID를 응답에 포함
-                response.put("receiptId", savedReceipt.getReceiptId());
                 log.info("영수증 DB 저장 완료: receiptId={}", savedReceipt.getReceiptId());
-                
-            } catch (IllegalArgumentException e) {
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("result", analysis);
+                response.put("fileName", fileName);
+                response.put("receiptId", savedReceipt.getReceiptId());
+                return ResponseEntity.ok(response);
+            })
+            .onErrorResume(IllegalArgumentException.class, e -> {
                 log.error("영수증 저장 실패 (비즈니스 로직 오류): {}", e.getMessage());
-                response.put("success", false);
-                response.put("error", e.getMessage());
-                return ResponseEntity.badRequest().body(response);
-            } catch (Exception e) {
-                log.error("JSON 파싱 또는 DB 저장 실패: {}", e.getMessage(), e);
-                // 파싱 실패 시 원본 문자열을 그대로 반환 (에러 메시지일 수 있음)
-                resultMap = new HashMap<>();
-                resultMap.put("raw", resultJsonString);
-            }
+                return Mono.just(errorResponse(HttpStatus.BAD_REQUEST, e.getMessage()));
+            })
+            .onErrorResume(GeminiUnavailableException.class, e -> {
+                // 서킷 브레이커가 열렸거나 요청이 몰린 경우 - 클라이언트가 언제 다시 시도할지 알 수 있도록 Retry-After 포함
+                log.warn("영수증 분석 요청 거부: {}", e.getMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf((e.getRetryAfter().toMillis() + 999) / 1000))
+                    .body(errorResponse(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()).getBody()));
+            })
+            .onErrorResume(e -> {
+                log.error("영수증 분석 중 오류 발생: ", e);
+                return Mono.just(errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "영수증 분석 중 오류가 발생했습니다: " + e.getMessage()));
+            })
+            // 요청 전체 시간 제한 (spring.mvc.async.request-timeout 보다 짧게 두어 먼저 끝나며, 진행 중인 Gemini 호출은 취소됨)
+            .timeout(Duration.ofMillis(apiTimeoutMs), Mono.fromSupplier(() -> {
+                log.warn("영수증 분석 시간 초과: timeoutMs={}", apiTimeoutMs);
+                return errorResponse(HttpStatus.GATEWAY_TIMEOUT, "영수증 분석 시간이 초과되었습니다. 잠시 후 다시 시도해주세요.");
+            }));
+    }
 
+    /**
+     * 영수증 분석 작업 등록 (비동기)
+     * 이미지를 저장하고 작업 ID를 바로 반환하며, 분석은 워커 풀에서 진행
+     * 진행 상황은 GET /receipt/analyze/jobs/{jobId} 로 조회
+     */
+    @PostMapping("/analyze/jobs")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> submitAnalysisJob(
+        @RequestParam("file") MultipartFile file,
+        @RequestParam(required = false) Long travelId,
+        @AuthenticationPrincipal CustomUserDetailsService.CustomUserDetails userDetails) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (file.isEmpty()) {
+            response.put("success", false);
+            response.put("error", "파일을 선택해주세요.");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            ReceiptAnalysisJob job = receiptAnalysisJobService.enqueue(userDetails.getUser(), file, travelId);
             response.put("success", true);
-            response.put("result", resultMap);  // 파싱된 객체로 저장
-            response.put("fileName", file.getOriginalFilename());
+            response.put("jobId", job.getJobId());
+            response.put("status", job.getStatus());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("영수증 분석 작업 등록 중 오류 발생: ", e);
+            response.put("success", false);
+            response.put("error", "영수증 분석 작업 등록 중 오류가 발생했습니다: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
 
-            return ResponseEntity.ok(response);
+    /**
+     * 영수증 분석 작업 상태 조회 (polling)
+     */
+    @GetMapping("/analyze/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getAnalysisJob(
+        @PathVariable Long jobId,
+        @AuthenticationPrincipal CustomUserDetailsService.CustomUserDetails userDetails) {
+        Map<String, Object> response = new HashMap<>();
 
+        try {
+            ReceiptAnalysisJob job = receiptAnalysisJobService.getJob(jobId, userDetails.getUser());
+            return ResponseEntity.ok(toJobResponse(job));
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    /**
+     * 여러 영수증 분석 작업 일괄 등록
+     * 파일마다 작업을 만들어 jobIds 를 바로 반환하고, 결과는 /receipt/analyze/jobs/events 로 받음
+     */
+    @PostMapping("/analyze/jobs/batch")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> submitAnalysisBatch(
+        @RequestParam("files") MultipartFile[] files,
+        @RequestParam(required = false) Long travelId,
+        @AuthenticationPrincipal CustomUserDetailsService.CustomUserDetails userDetails) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<ReceiptAnalysisJob> jobs = receiptAnalysisJobService.enqueueAll(userDetails.getUser(), files, travelId);
+            response.put("success", true);
+            response.put("jobIds", jobs.stream().map(ReceiptAnalysisJob::getJobId).toList());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
-            log.error("영수증 분석 중 오류 발생: ", e);
+            log.error("영수증 분석 작업 일괄 등록 중 오류 발생: ", e);
             response.put("success", false);
-            response.put("error", "영수증 분석 중 오류가 발생했습니다: " + e.getMessage());
+            response.put("error", "영수증 분석 작업 등록 중 오류가 발생했습니다: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 분석 결과 스트리밍 (SSE)
+     * 작업이 끝나는 순서대로 "job" 이벤트(상태 조회와 같은 형식)를 보내고, 모두 끝나면 "done" 이벤트 후 종료
+     * 브라우저에서는 EventSource('/receipt/analyze/jobs/events?jobIds=1,2,3') 로 사용
+     */
+    @GetMapping(value = "/analyze/jobs/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamAnalysisJobs(
+        @RequestParam List<Long> jobIds,
+        @AuthenticationPrincipal CustomUserDetailsService.CustomUserDetails userDetails) {
+        User user = userDetails.getUser();
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        // 본인 작업인지 먼저 확인
+        try {
+            jobIds.forEach(jobId -> receiptAnalysisJobService.getJob(jobId, user));
+        } catch (IllegalArgumentException e) {
+            send(emitter, "error", Map.of("success", false, "error", e.getMessage()));
+            emitter.complete();
+            return emitter;
+        }
+
+        Map<Long, CompletableFuture<Long>> completions = new LinkedHashMap<>();
+        jobIds.stream().distinct()
+            .forEach(jobId -> completions.put(jobId, receiptAnalysisJobService.awaitCompletion(jobId)));
+
+        // 시간 초과, 오류, 연결 종료 시 대기 해제 (정상 완료 후에는 이미 해제되어 있음)
+        Runnable release = () -> completions.forEach(receiptAnalysisJobService::cancelAwait);
+        emitter.onTimeout(release);
+        emitter.onError(e -> release.run());
+        emitter.onCompletion(release);
+
+        List<CompletableFuture<Void>> sent = completions.values().stream()
+            .map(future -> future
+                .thenAccept(id -> send(emitter, "job", toJobResponse(receiptAnalysisJobService.getJob(id, user)))))
+            .toList();
+
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new))
+            .whenComplete((ignored, e) -> {
+                if (e != null) {
+                    emitter.completeWithError(e);
+                    return;
+                }
+                send(emitter, "done", Map.of("jobIds", jobIds));
+                emitter.complete();
+            });
+        return emitter;
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(HttpStatus status, String error) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", error);
+        return ResponseEntity.status(status).body(response);
+    }
+
+    // 작업 상태 응답
+    // status: PENDING / RUNNING / DONE / FAILED
+    // DONE 이면 result(분석 결과)와 receiptId, FAILED 이면 error 를 함께 반환
+    private Map<String, Object> toJobResponse(ReceiptAnalysisJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", job.getStatus() != ReceiptAnalysisJob.Status.FAILED);
+        response.put("jobId", job.getJobId());
+        response.put("status", job.getStatus());
+        response.put("fileName", job.getFileName());
+        if (job.getStatus() == ReceiptAnalysisJob.Status.DONE) {
+            response.put("result", receiptAnalysisJobService.readResult(job));
+            response.put("receiptId", job.getReceiptId());
+        }
+        if (job.getStatus() == ReceiptAnalysisJob.Status.FAILED) {
+            response.put("error", job.getErrorMessage());
+        }
+        return response;
+    }
+
+    private void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException e) {
+            // 클라이언트가 연결을 끊은 경우 (작업은 계속 진행되며 상태 조회로 확인 가능)
+            log.debug("분석 결과 스트림 전송 실패: {}", e.getMessage());
+        }
+    }
+}
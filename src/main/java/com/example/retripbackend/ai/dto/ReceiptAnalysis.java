@@ -0,0 +1,23 @@
+package com.example.retripbackend.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Gemini 영수증 분석 결과
+ * ReceiptAnalysisReader 가 모델 응답을 읽으면서 숫자/날짜까지 변환해 두므로 사용하는 쪽에서 다시 파싱하지 않음
+ * (읽을 수 없는 값은 null)
+ * API 응답(result), 분석 캐시, 분석 작업 결과에도 이 형식 그대로 JSON 으로 저장
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ReceiptAnalysis(
+    String placeName,
+    BigDecimal amount,
+    String currency,
+    LocalDateTime paidAt,
+    String address,
+    String category,
+    Double latitude,
+    Double longitude
+) {}
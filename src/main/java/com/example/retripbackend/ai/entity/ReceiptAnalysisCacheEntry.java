@@ -0,0 +1,32 @@
+package com.example.retripbackend.ai.entity;
+
+import com.example.retripbackend.baseEntity.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 영수증 이미지별 Gemini 분석 결과 캐시
+ * 같은 이미지(재업로드, 새로고침 후 재시도, 함께 계산한 영수증 등)는 다시 분석하지 않고 저장된 결과를 사용
+ * 키는 이미지 바이트의 SHA-256 이며, 모델이 바뀌면 결과가 달라질 수 있으므로 모델명이 같을 때만 사용
+ */
+@Entity
+@Getter
+@Table(name = "receipt_analysis_cache")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ReceiptAnalysisCacheEntry extends BaseEntity {
+
+    @Id
+    @Column(length = 64)
+    private String imageHash;  // 이미지 SHA-256 (16진수)
+
+    @Column(nullable = false, length = 100)
+    private String modelName;  // 분석한 Gemini 모델
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String resultJson;  // 파싱된 분석 결과 (JSON)
+}
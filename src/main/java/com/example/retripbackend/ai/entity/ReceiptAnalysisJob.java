@@ -0,0 +1,105 @@
+package com.example.retripbackend.ai.entity;
+
+import com.example.retripbackend.baseEntity.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 영수증 분석 작업
+ * 업로드 요청은 이미지를 저장하고 작업만 기록한 뒤 바로 응답하고,
+ * 실제 Gemini 분석과 Receipt 저장은 ReceiptAnalysisJobService의 워커 풀에서 처리한다.
+ * DB에 남겨 두므로 서버가 재시작되어도 대기/처리 중이던 작업을 다시 처리할 수 있음
+ */
+@Entity
+@Getter
+@Table(name = "receipt_analysis_jobs",
+    indexes = @Index(name = "idx_receipt_analysis_jobs_status", columnList = "status, job_id"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ReceiptAnalysisJob extends BaseEntity {
+
+    public enum Status {
+        PENDING,  // 대기 중
+        RUNNING,  // 분석 중
+        DONE,     // 분석 및 Receipt 저장 완료
+        FAILED    // 분석 실패
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(nullable = false)
+    private Long userId;  // 요청한 사용자 (조회 권한 확인용)
+
+    @Column(nullable = false)
+    private Long travelId;  // 분석 결과를 저장할 여행
+
+    @Column(nullable = false, length = 500)
+    private String imageUrl;  // 저장된 영수증 이미지 URL
+
+    @Column(length = 255)
+    private String fileName;  // 업로드 당시 원본 파일명
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(columnDefinition = "TEXT")
+    private String resultJson;  // Gemini 분석 결과 (JSON)
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private Long receiptId;  // 저장된 Receipt
+
+    @Column(length = 64)
+    private String leaseOwner;  // 처리 중인 서버 (RUNNING 일 때)
+
+    private LocalDateTime leaseExpiresAt;  // 처리 중인 서버가 주기적으로 연장, 지나면 다른 서버가 다시 처리
+
+    public static ReceiptAnalysisJob of(Long userId, Long travelId, String imageUrl, String fileName) {
+        ReceiptAnalysisJob job = new ReceiptAnalysisJob();
+        job.userId = userId;
+        job.travelId = travelId;
+        job.imageUrl = imageUrl;
+        job.fileName = fileName;
+        return job;
+    }
+
+    // 이 서버가 처리 중인 작업인지
+    public boolean isLeasedBy(String owner) {
+        return status == Status.RUNNING && owner.equals(leaseOwner);
+    }
+
+    public void complete(String resultJson, Long receiptId) {
+        this.status = Status.DONE;
+        this.resultJson = resultJson;
+        this.receiptId = receiptId;
+        releaseLease();
+    }
+
+    public void fail(String errorMessage) {
+        this.status = Status.FAILED;
+        releaseLease();
+        this.errorMessage = errorMessage != null && errorMessage.length() > 1000
+            ? errorMessage.substring(0, 1000)
+            : errorMessage;
+    }
+
+    private void releaseLease() {
+        this.leaseOwner = null;
+        this.leaseExpiresAt = null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.retripbackend.ai.exception;
+
+import java.time.Duration;
+
+/**
+ * 지금은 분석 요청을 받을 수 없음 (서킷 브레이커 열림, 동시 분석/쿼터 대기 한도 초과)
+ * API는 503 + Retry-After 로, 분석 작업은 대기 상태로 되돌려 나중에 다시 처리한다.
+ */
+public class GeminiUnavailableException extends GeminiApiException {
+
+    private final Duration retryAfter;
+
+    public GeminiUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
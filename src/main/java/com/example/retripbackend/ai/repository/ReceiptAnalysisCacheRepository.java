@@ -0,0 +1,28 @@
+package com.example.retripbackend.ai.repository;
+
+import com.example.retripbackend.ai.entity.ReceiptAnalysisCacheEntry;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ReceiptAnalysisCacheRepository extends JpaRepository<ReceiptAnalysisCacheEntry, String> {
+
+    @Query("SELECT c.resultJson FROM ReceiptAnalysisCacheEntry c WHERE c.imageHash = :imageHash AND c.modelName = :modelName")
+    Optional<String> findResultJson(@Param("imageHash") String imageHash, @Param("modelName") String modelName);
+
+    // 분석 결과 저장 (같은 이미지를 동시에 분석한 경우나 모델이 바뀐 경우 덮어씀)
+    // Gemini 호출 스레드에는 트랜잭션이 없으므로 자체 트랜잭션으로 실행
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO receipt_analysis_cache (image_hash, model_name, result_json, created_at, updated_at) " +
+        "VALUES (:imageHash, :modelName, :resultJson, NOW(6), NOW(6)) " +
+        "ON DUPLICATE KEY UPDATE model_name = VALUES(model_name), result_json = VALUES(result_json), updated_at = NOW(6)",
+        nativeQuery = true)
+    int upsert(@Param("imageHash") String imageHash, @Param("modelName") String modelName,
+        @Param("resultJson") String resultJson);
+}
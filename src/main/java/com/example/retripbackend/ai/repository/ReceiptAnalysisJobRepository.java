@@ -0,0 +1,80 @@
+package com.example.retripbackend.ai.repository;
+
+import com.example.retripbackend.ai.entity.ReceiptAnalysisJob;
+import com.example.retripbackend.ai.entity.ReceiptAnalysisJob.Status;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ReceiptAnalysisJobRepository extends JpaRepository<ReceiptAnalysisJob, Long> {
+
+    Optional<ReceiptAnalysisJob> findByJobIdAndUserId(Long jobId, Long userId);
+
+    // 상태별 작업 ID (오래된 순)
+    @Query("SELECT j.jobId FROM ReceiptAnalysisJob j WHERE j.status = :status ORDER BY j.jobId")
+    List<Long> findJobIdsByStatus(@Param("status") Status status, Pageable pageable);
+
+    // 주어진 작업 중 해당 상태인 작업 ID (다른 서버에서 끝난 작업 확인용)
+    @Query("SELECT j.jobId FROM ReceiptAnalysisJob j WHERE j.jobId IN :jobIds AND j.status IN :statuses")
+    List<Long> findJobIdsByJobIdInAndStatusIn(@Param("jobIds") Collection<Long> jobIds,
+        @Param("statuses") Collection<Status> statuses);
+
+    // 작업 선점 (PENDING 일 때만 RUNNING 으로 바꾸고 임대 기록)
+    // 선점에 성공한 워커만 분석하므로 같은 작업이 두 번 처리되지 않음
+    // 워커 스레드에는 트랜잭션이 없으므로 자체 트랜잭션으로 실행
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReceiptAnalysisJob j SET j.status = :running, j.leaseOwner = :owner, j.leaseExpiresAt = :expiresAt, " +
+        "j.updatedAt = CURRENT_TIMESTAMP WHERE j.jobId = :jobId AND j.status = :pending")
+    int claim(@Param("jobId") Long jobId, @Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt,
+        @Param("pending") Status pending, @Param("running") Status running);
+
+    // 처리 중인 작업의 임대 연장 (heartbeat)
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReceiptAnalysisJob j SET j.leaseExpiresAt = :expiresAt " +
+        "WHERE j.jobId IN :jobIds AND j.status = :running AND j.leaseOwner = :owner")
+    int renewLeases(@Param("jobIds") Collection<Long> jobIds, @Param("owner") String owner,
+        @Param("expiresAt") LocalDateTime expiresAt, @Param("running") Status running);
+
+    // 처리 중이던 작업을 직접 대기 상태로 되돌림 (이 서버가 임대한 경우만)
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReceiptAnalysisJob j SET j.status = :pending, j.leaseOwner = NULL, j.leaseExpiresAt = NULL, " +
+        "j.updatedAt = CURRENT_TIMESTAMP WHERE j.jobId = :jobId AND j.status = :running AND j.leaseOwner = :owner")
+    int requeue(@Param("jobId") Long jobId, @Param("owner") String owner,
+        @Param("running") Status running, @Param("pending") Status pending);
+
+    // 임대가 만료된 RUNNING 작업을 다시 대기 상태로 (처리하던 서버가 죽었거나 상태 기록에 실패한 작업)
+    // 임대 기록 전 버전에서 RUNNING 으로 남은 작업(lease_expires_at 없음)도 포함
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReceiptAnalysisJob j SET j.status = :pending, j.leaseOwner = NULL, j.leaseExpiresAt = NULL, " +
+        "j.updatedAt = CURRENT_TIMESTAMP " +
+        "WHERE j.status = :running AND (j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now)")
+    int requeueExpired(@Param("now") LocalDateTime now,
+        @Param("running") Status running, @Param("pending") Status pending);
+
+    // 결과 기록 전 잠금 (임대 만료로 다른 서버가 다시 가져가는 것과 겹치지 않도록)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM ReceiptAnalysisJob j WHERE j.jobId = :jobId")
+    Optional<ReceiptAnalysisJob> findByIdForUpdate(@Param("jobId") Long jobId);
+
+    // 보관 기간이 지난 완료/실패 작업 정리
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReceiptAnalysisJob j WHERE j.status IN :statuses AND j.updatedAt < :cutoff")
+    int deleteByStatusUpdatedBefore(@Param("statuses") Collection<Status> statuses,
+        @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,181 @@
+package com.example.retripbackend.ai.service;
+
+import com.example.retripbackend.ai.exception.GeminiUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Gemini 호출 보호 (부하 차단 → 서킷 브레이커 → 쿼터 대기 → 타임아웃/헤지 → 429 재시도)
+ * 1. 동시에 진행 중인 모델 호출이 max-concurrent 개를 넘으면 바로 거부
+ * 2. 서킷 브레이커가 열려 있으면 바로 거부
+ * 3. 토큰 버킷 대기 시간이 max-queue-wait 를 넘으면 거부 (대기열이 무한히 길어지지 않도록)
+ * 4. 시도마다 timeout 을 걸고, 헤지가 켜져 있으면 hedge.delay 동안 응답이 없을 때 같은 요청을 한 번 더 보내
+ *    먼저 온 응답을 사용 (늦은 쪽은 취소, 남는 토큰이 있을 때만 보냄)
+ * 거부는 GeminiUnavailableException(재시도 가능 시각 포함)으로 알려서 API는 503 + Retry-After 로 응답한다.
+ */
+@Slf4j
+@Component
+public class GeminiCallGuard {
+
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final GeminiCircuitBreaker circuitBreaker;
+    private final GeminiRateLimiter rateLimiter;
+    private final Duration callTimeout;
+    private final Duration maxQueueWait;
+    private final boolean hedgeEnabled;
+    private final Duration hedgeDelay;
+    private final int maxConcurrent;
+    private final Semaphore admission;
+
+    private final Timer callTimer;
+    private final Counter successCount;
+    private final Counter failureCount;
+    private final Counter circuitOpenCount;
+    private final Counter shedCount;
+    private final Counter hedgeCount;
+
+    public GeminiCallGuard(GeminiCircuitBreaker circuitBreaker,
+        GeminiRateLimiter rateLimiter,
+        @Value("${gemini.timeout-ms:30000}") long timeoutMs,
+        @Value("${gemini.admission.max-concurrent:32}") int maxConcurrent,
+        @Value("${gemini.admission.max-queue-wait-ms:60000}") long maxQueueWaitMs,
+        @Value("${gemini.hedge.enabled:false}") boolean hedgeEnabled,
+        @Value("${gemini.hedge.delay-ms:10000}") long hedgeDelayMs,
+        MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreaker;
+        this.rateLimiter = rateLimiter;
+        this.callTimeout = Duration.ofMillis(timeoutMs);
+        this.maxQueueWait = Duration.ofMillis(maxQueueWaitMs);
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeDelay = Duration.ofMillis(hedgeDelayMs);
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.admission = new Semaphore(this.maxConcurrent);
+
+        this.callTimer = Timer.builder("gemini.call")
+            .description("Gemini 호출 소요 시간 (쿼터 대기, 재시도 포함)")
+            .register(meterRegistry);
+        this.successCount = requestCounter(meterRegistry, "success");
+        this.failureCount = requestCounter(meterRegistry, "failure");
+        this.circuitOpenCount = requestCounter(meterRegistry, "circuit_open");
+        this.shedCount = requestCounter(meterRegistry, "shed");
+        this.hedgeCount = Counter.builder("gemini.hedge.sent")
+            .description("응답이 늦어 추가로 보낸 헤지 요청 수")
+            .register(meterRegistry);
+        Gauge.builder("gemini.in-flight", this, guard -> guard.maxConcurrent - guard.admission.availablePermits())
+            .description("진행 중인 Gemini 호출 수 (쿼터 대기 포함)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 보호된 호출
+     * @param attempt 구독할 때마다 요청을 한 번 보내는 Mono 공급자 (헤지/재시도 시 다시 호출됨)
+     */
+    public <T> Mono<T> call(Supplier<Mono<T>> attempt) {
+        return Mono.defer(() -> {
+            if (!admission.tryAcquire()) {
+                shedCount.increment();
+                return Mono.error(overloaded());
+            }
+            if (!circuitBreaker.tryAcquirePermission()) {
+                admission.release();
+                circuitOpenCount.increment();
+                return Mono.error(new GeminiUnavailableException(
+                    "AI 서비스가 일시적으로 응답하지 않습니다. 잠시 후 다시 시도해주세요.",
+                    atLeastMinimum(circuitBreaker.retryAfter())));
+            }
+
+            long startedAt = System.nanoTime();
+            return Mono.defer(() -> rateLimiter.tryReserve(maxQueueWait)
+                    .map(wait -> Mono.delay(wait).then(hedged(attempt)))
+                    .orElseGet(() -> {
+                        shedCount.increment();
+                        return Mono.error(overloaded());
+                    }))
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
+                    .filter(GeminiCallGuard::isTooManyRequests)
+                    .doBeforeRetry(retrySignal -> log.warn("429 Too Many Requests 발생. 재시도 중... (시도 횟수: {})",
+                        retrySignal.totalRetries() + 1)))
+                .doOnSuccess(result -> {
+                    circuitBreaker.onSuccess();
+                    successCount.increment();
+                })
+                .doOnError(e -> {
+                    if (isModelFailure(e)) {
+                        circuitBreaker.onFailure();
+                        failureCount.increment();
+                    } else {
+                        circuitBreaker.onIgnored();
+                    }
+                })
+                .doOnCancel(circuitBreaker::onIgnored)
+                .doFinally(signal -> {
+                    admission.release();
+                    callTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                });
+        });
+    }
+
+    // 타임아웃을 건 한 번의 시도 (+ 헤지)
+    private <T> Mono<T> hedged(Supplier<Mono<T>> attempt) {
+        Mono<T> primary = Mono.defer(attempt).timeout(callTimeout);
+        if (!hedgeEnabled) {
+            return primary;
+        }
+        // 헤지 요청은 실패해도 결과에 영향을 주지 않고, 첫 요청의 결과(또는 타임아웃)를 기다림
+        Mono<T> hedge = Mono.delay(hedgeDelay)
+            .flatMap(tick -> {
+                if (!rateLimiter.tryAcquire()) {
+                    return Mono.<T>never();
+                }
+                hedgeCount.increment();
+                return Mono.defer(attempt).timeout(callTimeout)
+                    .onErrorResume(e -> Mono.never());
+            });
+        return Mono.firstWithSignal(primary, hedge);
+    }
+
+    private GeminiUnavailableException overloaded() {
+        return new GeminiUnavailableException("영수증 분석 요청이 많습니다. 잠시 후 다시 시도해주세요.",
+            atLeastMinimum(rateLimiter.estimatedWait()));
+    }
+
+    private static Duration atLeastMinimum(Duration retryAfter) {
+        return retryAfter.compareTo(MIN_RETRY_AFTER) < 0 ? MIN_RETRY_AFTER : retryAfter;
+    }
+
+    private static boolean isTooManyRequests(Throwable throwable) {
+        return throwable instanceof WebClientResponseException ex
+            && ex.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    // 서킷 브레이커에 집계할 실패 (타임아웃, 연결 실패, 5xx) - 4xx/부하 차단은 모델 장애가 아님
+    private static boolean isModelFailure(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException ex) {
+            return ex.getStatusCode().is5xxServerError();
+        }
+        return throwable instanceof TimeoutException || throwable instanceof WebClientRequestException;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gemini.requests")
+            .description("Gemini 호출 결과별 횟수")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
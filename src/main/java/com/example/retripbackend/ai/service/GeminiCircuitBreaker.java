@@ -0,0 +1,149 @@
+package com.example.retripbackend.ai.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gemini 호출 서킷 브레이커
+ * 최근 window-size 번 호출 중 실패(타임아웃, 연결 오류, 5xx) 비율이 임계값을 넘으면 열려서
+ * open-duration 동안 호출하지 않고 바로 실패시킨다. 이후 한 번의 시험 호출(HALF_OPEN)이 성공하면 닫히고,
+ * 실패하면 다시 열린다. 4xx(잘못된 요청, 쿼터 초과)는 모델 장애가 아니므로 집계하지 않음
+ */
+@Slf4j
+@Component
+public class GeminiCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+
+    // 최근 호출 결과 (true: 실패) 원형 버퍼
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public GeminiCircuitBreaker(
+        @Value("${gemini.circuit-breaker.window-size:20}") int windowSize,
+        @Value("${gemini.circuit-breaker.minimum-calls:10}") int minimumCalls,
+        @Value("${gemini.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+        @Value("${gemini.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+        MeterRegistry meterRegistry) {
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), window.length);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = Duration.ofMillis(openDurationMs).toNanos();
+        Gauge.builder("gemini.circuit.state", this, breaker -> breaker.getState().ordinal())
+            .description("Gemini 서킷 브레이커 상태 (0: CLOSED, 1: OPEN, 2: HALF_OPEN)")
+            .register(meterRegistry);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 호출 허용 여부
+     * OPEN 이면 거부하고, 열린 시간이 지났으면 시험 호출 한 번만 허용
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+            log.info("Gemini 서킷 브레이커 HALF_OPEN: 시험 호출 허용");
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100.0 / recorded >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    // 결과를 집계하지 않는 종료 (4xx, 취소 등) - 시험 호출이었다면 다음 시험 호출을 허용
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    // 다시 호출해 볼 수 있을 때까지 남은 시간
+    public synchronized Duration retryAfter() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openDurationNanos - (System.nanoTime() - openedAt)));
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        log.warn("Gemini 서킷 브레이커 OPEN: 최근 실패 {}/{}", failures, recorded);
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        resetWindow();
+    }
+
+    private void close() {
+        log.info("Gemini 서킷 브레이커 CLOSED");
+        state = State.CLOSED;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        trialInFlight = false;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.retripbackend.ai.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gemini 호출 토큰 버킷
+ * 모델 쿼터(분당 요청 수)에 맞춰 초당 일정량의 토큰을 채우고, 호출 전에 토큰을 하나씩 가져간다.
+ * 토큰이 없으면 다음 토큰이 채워질 시각을 예약하고 그때까지 대기하므로
+ * 429 응답을 받고 나서 재시도(Retry.backoff)하기 전에 요청 속도 자체를 쿼터 이하로 유지한다.
+ * 예약 순서대로 대기 시간이 정해지므로 먼저 온 요청이 먼저 나간다.
+ */
+@Component
+public class GeminiRateLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final Timer waitTimer;
+
+    private double tokens;
+    private long lastRefillAt = System.nanoTime();
+
+    public GeminiRateLimiter(
+        @Value("${gemini.rate-limit.requests-per-minute:10}") int requestsPerMinute,
+        @Value("${gemini.rate-limit.burst:5}") int burst,
+        MeterRegistry meterRegistry) {
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.tokens = capacity;
+        this.waitTimer = Timer.builder("gemini.rate-limit.wait")
+            .description("Gemini 호출 전 쿼터 대기 시간")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 토큰 하나 예약
+     * 토큰을 먼저 차감(음수 허용)하여 차례를 정하고, 그 토큰이 채워질 때까지 남은 시간을 반환
+     * 호출 측은 반환된 시간만큼 기다린 뒤 요청한다. (Mono.delay 등으로 스레드를 붙잡지 않고 대기)
+     * 대기 시간이 maxWait를 넘으면 예약하지 않고 empty 반환 (대기열이 너무 길면 요청을 받지 않음)
+     */
+    public Optional<Duration> tryReserve(Duration maxWait) {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            waitNanos = waitNanosFor(tokens - 1);
+            if (waitNanos > maxWait.toNanos()) {
+                return Optional.empty();
+            }
+            tokens -= 1;
+        }
+        waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+        return Optional.of(Duration.ofNanos(waitNanos));
+    }
+
+    // 지금 바로 쓸 수 있는 토큰이 있을 때만 가져감 (헤지 요청처럼 기다릴 가치가 없는 호출용)
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    // 지금 예약하면 기다려야 하는 시간 (Retry-After 안내용, 예약하지 않음)
+    public synchronized Duration estimatedWait() {
+        refill();
+        return Duration.ofNanos(waitNanosFor(tokens - 1));
+    }
+
+    private long waitNanosFor(double remainingTokens) {
+        return remainingTokens >= 0 ? 0 : (long) (-remainingTokens / tokensPerNano);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillAt) * tokensPerNano);
+        lastRefillAt = now;
+    }
+}
@@ -2,27 +2,57 @@ package com.example.retripbackend.ai.service;
 
 import com.example.retripbackend.ai.dto.GeminiRequest;
 import com.example.retripbackend.ai.dto.GeminiResponse;
+import com.example.retripbackend.ai.dto.ReceiptAnalysis;
+import com.example.retripbackend.ai.exception.GeminiApiException;
 import com.example.retripbackend.config.GeminiConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
-import reactor.util.retry.Retry;
+import reactor.core.publisher.Flux;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.time.Duration;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GeminiService {
 
+    // 조각 크기는 3의 배수여야 조각별 Base64 결과를 이어 붙여도 전체 인코딩과 같음 (중간 패딩 없음)
+    private static final int BASE64_CHUNK_SIZE = 48 * 1024;
+    private static final String IMAGE_PLACEHOLDER = "__RECEIPT_IMAGE__";
+
     private final WebClient webClient;
     private final GeminiConfig geminiConfig;
+    private final GeminiCallGuard callGuard;
+    private final ReceiptAnalysisCache analysisCache;
+    private final ReceiptImagePreprocessor imagePreprocessor;
+    private final ReceiptAnalysisReader analysisReader;
+    private final ObjectMapper objectMapper;
+
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private final Map<String, RequestTemplate> requestTemplates = new ConcurrentHashMap<>();
 
     /**
      * 영수증 이미지를 분석하여 JSON 형식의 구조화된 정보 추출
@@ -30,74 +60,170 @@ public class GeminiService {
      * @return 영수증 분석 결과 (JSON 문자열)
      */
     public String analyzeReceipt(String receiptImageBase64) {
+        byte[] image;
         try {
-            // API 키 확인
-            if (geminiConfig.getApiKey() == null || geminiConfig.getApiKey().isEmpty()) {
-                log.warn("Gemini API 키가 설정되지 않았습니다.");
-                return "AI 서비스가 설정되지 않았습니다. API 키를 확인해주세요.";
+            image = Base64.getDecoder().decode(receiptImageBase64);
+        } catch (IllegalArgumentException e) {
+            log.error("영수증 이미지 Base64 디코딩 실패: ", e);
+            return "AI 응답 생성 중 오류가 발생했습니다: " + e.getMessage();
+        }
+        return analyzeReceipt(image);
+    }
+
+    /**
+     * 영수증 이미지를 분석하여 JSON 형식의 구조화된 정보 추출 (호출 스레드에서 대기)
+     * 워커 스레드/테스트용이며, 실패 시 예외 대신 오류 메시지를 반환
+     * @param receiptImage 영수증 이미지 (업로드 원본 바이트)
+     * @return 영수증 분석 결과 (JSON 문자열)
+     */
+    public String analyzeReceipt(byte[] receiptImage) {
+        try {
+            return analysisReader.write(analyze(receiptImage).block());
+        } catch (GeminiApiException e) {
+            return e.getMessage();
+        } catch (Exception e) {
+            if (Exceptions.unwrap(e) instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                return "AI 응답 생성이 중단되었습니다.";
             }
+            log.error("Gemini API 호출 중 오류 발생: ", e);
+            return "AI 응답 생성 중 오류가 발생했습니다: " + e.getMessage();
+        }
+    }
+
+    /**
+     * 영수증 이미지 분석 (non-blocking)
+     * 같은 이미지를 이미 분석했다면 Gemini를 호출하지 않고 캐시된 결과를 사용하고,
+     * 새로 분석할 때는 ReceiptImagePreprocessor로 줄이고 다시 압축한 이미지를 보냄
+     * 캐시 조회/저장(JDBC)과 이미지 전처리는 boundedElastic 스케줄러에서, 쿼터 대기는 타이머로 처리하므로
+     * 구독한 스레드를 붙잡지 않는다.
+     *
+     * @param receiptImage 영수증 이미지 (업로드 원본 바이트)
+     * @return 분석 결과, 실패 시 GeminiApiException 등의 error 신호
+     */
+    public Mono<ReceiptAnalysis> analyze(byte[] receiptImage) {
+        // API 키 확인
+        if (geminiConfig.getApiKey() == null || geminiConfig.getApiKey().isEmpty()) {
+            log.warn("Gemini API 키가 설정되지 않았습니다.");
+            return Mono.error(new GeminiApiException("AI 서비스가 설정되지 않았습니다. API 키를 확인해주세요."));
+        }
+        String modelName = geminiConfig.getModelName();
+
+        return Mono.fromCallable(() -> imageHashOf(receiptImage))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(imageHash -> Mono.justOrEmpty(analysisCache.get(imageHash, modelName))
+                // 같은 이미지의 이전 분석 결과 (읽을 수 없는 항목은 캐시 미스로 취급)
+                .flatMap(json -> Mono.justOrEmpty(analysisReader.read(json)))
+                .doOnNext(analysis -> log.debug("영수증 분석 캐시 사용: imageHash={}", imageHash))
+                .switchIfEmpty(Mono.defer(() -> requestAnalysis(receiptImage, modelName)
+                    // 정상 결과만 캐시 (오류는 다음 요청에서 다시 분석)
+                    .flatMap(analysis -> Mono.fromRunnable(() -> analysisCache.put(imageHash, modelName, analysisReader.write(analysis)))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenReturn(analysis)))));
+    }
+
+    // Gemini 호출 (전처리 → GeminiCallGuard 보호 하에 요청)
+    private Mono<ReceiptAnalysis> requestAnalysis(byte[] receiptImage, String modelName) {
+        String url = String.format("/v1/models/%s:generateContent?key=%s", modelName, geminiConfig.getApiKey());
 
-            // 요청 본문 구성 (프롬프트 + 이미지)
-            GeminiRequest request = buildRequest(receiptImageBase64);
-
-            // API 호출
-            String url = String.format("/v1/models/%s:generateContent?key=%s",
-                geminiConfig.getModelName(),
-                geminiConfig.getApiKey());
-
-            GeminiResponse response = webClient.post()
-                .uri(url)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(GeminiResponse.class)
-                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
-                    .filter(throwable -> {
-                        if (throwable instanceof WebClientResponseException ex) {
-                            return ex.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
-                        }
-                        return false;
-                    })
-                    .doBeforeRetry(retrySignal -> {
-                        log.warn("429 Too Many Requests 발생. 재시도 중... (시도 횟수: {})",
-                            retrySignal.totalRetries() + 1);
-                    }))
-                .block();
-
-            // 응답에서 텍스트 추출 (null 체크 강화)
-            if (response != null &&
-                response.getCandidates() != null &&
-                !response.getCandidates().isEmpty()) {
-
-                GeminiResponse.Candidate candidate = response.getCandidates().get(0);
-                if (candidate != null && 
-                    candidate.getContent() != null &&
-                    candidate.getContent().getParts() != null &&
-                    !candidate.getContent().getParts().isEmpty()) {
-                    
-                    GeminiResponse.Part part = candidate.getContent().getParts().get(0);
-                    if (part != null && part.getText() != null) {
-                        String result = part.getText();
-                        log.debug("Gemini 응답 생성 완료");
-                        return result;
-                    }
+        return Mono.fromCallable(() -> imagePreprocessor.prepare(receiptImage))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(prepared -> {
+                RequestTemplate template = requestTemplates.computeIfAbsent(prepared.mimeType(), this::requestTemplate);
+                return callGuard.call(() -> webClient.post()
+                    .uri(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentLength(template.contentLength(prepared.data()))
+                    .body(requestBody(template, prepared.data()))
+                    .retrieve()
+                    .bodyToMono(GeminiResponse.class));
+            })
+            .map(this::textOf)
+            .map(text -> {
+                log.debug("Gemini 응답 생성 완료");
+                return analysisReader.read(text)
+                    .orElseThrow(() -> new GeminiApiException("영수증 분석 결과가 JSON 형식이 아닙니다: " + text));
+            });
+    }
+
+    // 응답에서 텍스트 추출 (null 체크 강화)
+    private String textOf(GeminiResponse response) {
+        if (response != null &&
+            response.getCandidates() != null &&
+            !response.getCandidates().isEmpty()) {
+
+            GeminiResponse.Candidate candidate = response.getCandidates().get(0);
+            if (candidate != null &&
+                candidate.getContent() != null &&
+                candidate.getContent().getParts() != null &&
+                !candidate.getContent().getParts().isEmpty()) {
+
+                GeminiResponse.Part part = candidate.getContent().getParts().get(0);
+                if (part != null && part.getText() != null) {
+                    return part.getText();
                 }
             }
+        }
+        throw new GeminiApiException("응답을 받을 수 없습니다.");
+    }
 
-            return "응답을 받을 수 없습니다.";
+    // 이미지 바이트의 SHA-256 (16진수)
+    private String imageHashOf(byte[] image) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image));
+    }
 
-        } catch (Exception e) {
-            log.error("Gemini API 호출 중 오류 발생: ", e);
-            return "AI 응답 생성 중 오류가 발생했습니다: " + e.getMessage();
+    /**
+     * 요청 본문 스트림
+     * 이미지 Base64 문자열, GeminiRequest 객체, 직렬화된 JSON 전체를 만들지 않고
+     * [JSON 앞부분] + [이미지를 조각씩 Base64 인코딩한 버퍼들] + [JSON 뒷부분] 순서로 바로 전송한다.
+     * 한 번에 메모리에 있는 것은 이미지 바이트와 인코딩 중인 조각 하나뿐이며,
+     * 구독할 때마다 다시 만들어지므로 429 재시도에도 그대로 사용할 수 있음
+     */
+    private BodyInserter<Flux<DataBuffer>, ReactiveHttpOutputMessage> requestBody(RequestTemplate template, byte[] image) {
+        int chunks = (image.length + BASE64_CHUNK_SIZE - 1) / BASE64_CHUNK_SIZE;
+        Flux<DataBuffer> body = Flux.concat(
+            Mono.fromSupplier(() -> bufferFactory.wrap(template.prefix())),
+            Flux.range(0, chunks).map(i -> {
+                int offset = i * BASE64_CHUNK_SIZE;
+                int length = Math.min(BASE64_CHUNK_SIZE, image.length - offset);
+                return bufferFactory.wrap(Base64.getEncoder().encode(ByteBuffer.wrap(image, offset, length)));
+            }),
+            Mono.fromSupplier(() -> bufferFactory.wrap(template.suffix())));
+        return BodyInserters.fromDataBuffers(body);
+    }
+
+    /**
+     * MIME 타입별 요청 JSON 틀
+     * 이미지 자리에 표시 문자열을 넣어 GeminiRequest를 한 번 직렬화하고, 그 앞뒤를 잘라 보관
+     * (프롬프트가 고정이므로 MIME 타입마다 한 번만 만듦)
+     */
+    private RequestTemplate requestTemplate(String mimeType) {
+        try {
+            String json = objectMapper.writeValueAsString(buildRequest(IMAGE_PLACEHOLDER, mimeType));
+            int index = json.indexOf(IMAGE_PLACEHOLDER);
+            return new RequestTemplate(
+                json.substring(0, index).getBytes(StandardCharsets.UTF_8),
+                json.substring(index + IMAGE_PLACEHOLDER.length()).getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Gemini 요청 틀 생성 실패", e);
+        }
+    }
+
+    private record RequestTemplate(byte[] prefix, byte[] suffix) {
+
+        // Base64 길이는 패딩 포함 4 * ceil(n / 3)
+        long contentLength(byte[] image) {
+            return prefix.length + 4L * ((image.length + 2) / 3) + suffix.length;
         }
     }
 
     /**
      * Gemini API 요청 본문 구성 (프롬프트 + 이미지)
      * @param receiptImageBase64 영수증 이미지 (Base64 인코딩)
+     * @param mimeType 이미지 MIME 타입
      * @return Gemini API 요청 객체
      */
-    private GeminiRequest buildRequest(String receiptImageBase64) {
+    private GeminiRequest buildRequest(String receiptImageBase64, String mimeType) {
         List<GeminiRequest.Part> parts = new ArrayList<>();
 
         // 프롬프트 추가 (이미지 분석 지시사항)
@@ -169,7 +295,7 @@ public class GeminiService {
         if (receiptImageBase64 != null && !receiptImageBase64.isEmpty()) {
             parts.add(GeminiRequest.Part.builder()
                 .inlineData(GeminiRequest.InlineData.builder()
-                    .mimeType("image/jpeg")
+                    .mimeType(mimeType)
                     .data(receiptImageBase64)
                     .build())
                 .build());
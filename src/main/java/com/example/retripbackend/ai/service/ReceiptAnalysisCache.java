@@ -0,0 +1,94 @@
+package com.example.retripbackend.ai.service;
+
+import com.example.retripbackend.ai.repository.ReceiptAnalysisCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * 영수증 분석 결과 캐시 (이미지 SHA-256 → 분석 결과 JSON)
+ * - 메모리: 최근 사용한 memory-size 개를 LRU로 보관 (접근 순서 LinkedHashMap)
+ * - DB: receipt_analysis_cache 에 영구 보관하여 재시작 후에도, 다른 서버에서도 재사용
+ * 메모리에 없으면 DB를 보고, DB에서 찾은 결과는 메모리에 올린다.
+ * 캐시 조회/저장 실패는 분석을 막지 않도록 로그만 남기고 캐시 없이 진행
+ */
+@Slf4j
+@Component
+public class ReceiptAnalysisCache {
+
+    private final ReceiptAnalysisCacheRepository cacheRepository;
+    private final Map<String, String> memory;
+    private final Counter memoryHits;
+    private final Counter dbHits;
+    private final Counter misses;
+
+    public ReceiptAnalysisCache(ReceiptAnalysisCacheRepository cacheRepository,
+        @Value("${receipt.analysis.cache.memory-size:1000}") int memorySize,
+        MeterRegistry meterRegistry) {
+        this.cacheRepository = cacheRepository;
+        this.memory = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > memorySize;
+            }
+        });
+        this.memoryHits = counter(meterRegistry, "memory_hit");
+        this.dbHits = counter(meterRegistry, "db_hit");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder("receipt.analysis.cache.size", memory, Map::size)
+            .description("메모리에 캐시된 영수증 분석 결과 수")
+            .register(meterRegistry);
+    }
+
+    // 캐시된 분석 결과 조회
+    public Optional<String> get(String imageHash, String modelName) {
+        String key = key(imageHash, modelName);
+        String cached = memory.get(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached);
+        }
+
+        try {
+            Optional<String> stored = cacheRepository.findResultJson(imageHash, modelName);
+            if (stored.isPresent()) {
+                memory.put(key, stored.get());
+                dbHits.increment();
+                return stored;
+            }
+        } catch (DataAccessException e) {
+            log.warn("영수증 분석 캐시 조회 실패: imageHash={}", imageHash, e);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    // 분석 결과 저장
+    public void put(String imageHash, String modelName, String resultJson) {
+        memory.put(key(imageHash, modelName), resultJson);
+        try {
+            cacheRepository.upsert(imageHash, modelName, resultJson);
+        } catch (DataAccessException e) {
+            log.warn("영수증 분석 캐시 저장 실패: imageHash={}", imageHash, e);
+        }
+    }
+
+    private String key(String imageHash, String modelName) {
+        return modelName + ":" + imageHash;
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("receipt.analysis.cache.requests")
+            .description("영수증 분석 캐시 조회 결과")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
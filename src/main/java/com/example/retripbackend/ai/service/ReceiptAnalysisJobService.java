@@ -0,0 +1,352 @@
+package com.example.retripbackend.ai.service;
+
+import com.example.retripbackend.ai.dto.ReceiptAnalysis;
+import com.example.retripbackend.ai.entity.ReceiptAnalysisJob;
+import com.example.retripbackend.ai.entity.ReceiptAnalysisJob.Status;
+import com.example.retripbackend.ai.exception.GeminiUnavailableException;
+import com.example.retripbackend.ai.repository.ReceiptAnalysisJobRepository;
+import com.example.retripbackend.receipt.entity.Receipt;
+import com.example.retripbackend.receipt.service.ReceiptService;
+import com.example.retripbackend.SNS.entity.Travel;
+import com.example.retripbackend.SNS.service.FileStorageService;
+import com.example.retripbackend.SNS.service.StoredFileService;
+import com.example.retripbackend.SNS.service.TravelService;
+import com.example.retripbackend.user.entity.User;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.Exceptions;
+
+/**
+ * 영수증 분석 작업 큐
+ * 업로드 요청 스레드는 이미지를 저장하고 receipt_analysis_jobs 에 PENDING 작업을 기록한 뒤 바로 반환하고,
+ * Gemini 호출(재시도 포함 수 초~수십 초)은 크기가 고정된 receiptAnalysisExecutor 워커가 처리한다.
+ * AI 응답이 느려도 Tomcat 요청 스레드가 묶이지 않으며, 동시에 진행되는 분석 수도 워커 수로 제한된다.
+ *
+ * DB가 대기열의 원본이므로 메모리 큐가 가득 차거나 서버가 재시작되어도 작업은 유실되지 않는다.
+ * - 메모리 큐가 가득 차서 넘기지 못한 작업은 주기적인 dispatchPending 에서 다시 넘김
+ * - 워커는 PENDING → RUNNING 선점(임대)에 성공한 경우에만 분석하므로 같은 작업이 두 번 처리되지 않음
+ * - 처리 중인 서버는 임대를 주기적으로 연장하고, 임대가 만료된 RUNNING 작업(서버 종료/장애, 상태 기록 실패)만
+ *   어느 서버에서든 PENDING 으로 되돌려 다시 처리 (살아 있는 다른 서버가 처리 중인 작업은 건드리지 않음)
+ */
+@Slf4j
+@Service
+public class ReceiptAnalysisJobService {
+
+    private static final String URL_PREFIX = "/uploads/";
+    private static final int DISPATCH_BATCH_SIZE = 100;
+    private static final List<Status> FINISHED = List.of(Status.DONE, Status.FAILED);
+
+    private final ReceiptAnalysisJobRepository jobRepository;
+    private final GeminiService geminiService;
+    private final ReceiptService receiptService;
+    private final TravelService travelService;
+    private final FileStorageService fileStorageService;
+    private final StoredFileService storedFileService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final ReceiptAnalysisReader analysisReader;
+
+    // 워커 큐에 이미 넘긴 작업 (주기적인 재전달 시 중복으로 큐를 채우지 않도록)
+    private final Set<Long> dispatched = ConcurrentHashMap.newKeySet();
+
+    // 이 서버의 워커가 임대하여 처리 중인 작업 (임대 연장 대상)
+    private final Set<Long> leased = ConcurrentHashMap.newKeySet();
+
+    // 임대 소유자 (서버 인스턴스마다 다름)
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    // 완료를 기다리는 결과 스트림 (작업별 대기자 목록)
+    private final Map<Long, Set<CompletableFuture<Long>>> completions = new ConcurrentHashMap<>();
+
+    @Value("${receipt.analysis.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${receipt.analysis.max-batch-size:30}")
+    private int maxBatchSize;
+
+    @Value("${receipt.analysis.lease-ms:120000}")
+    private long leaseMs;
+
+    public ReceiptAnalysisJobService(ReceiptAnalysisJobRepository jobRepository,
+        GeminiService geminiService,
+        ReceiptService receiptService,
+        TravelService travelService,
+        FileStorageService fileStorageService,
+        StoredFileService storedFileService,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("receiptAnalysisExecutor") Executor executor,
+        ReceiptAnalysisReader analysisReader) {
+        this.jobRepository = jobRepository;
+        this.geminiService = geminiService;
+        this.receiptService = receiptService;
+        this.travelService = travelService;
+        this.fileStorageService = fileStorageService;
+        this.storedFileService = storedFileService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.analysisReader = analysisReader;
+    }
+
+    /**
+     * 분석 작업 등록
+     * 여행 권한 확인과 이미지 저장까지만 요청 스레드에서 처리하고, 분석은 워커에 넘김
+     * 작업이 끝날 때까지 이미지가 정리되지 않도록 작업도 이미지 참조를 하나 가짐
+     */
+    public ReceiptAnalysisJob enqueue(User user, MultipartFile file, Long travelId) throws IOException {
+        return enqueueAll(user, new MultipartFile[]{file}, travelId).get(0);
+    }
+
+    /**
+     * 여러 영수증 분석 작업 일괄 등록
+     * 파일마다 작업을 하나씩 만들어 같은 워커 풀에 넘기므로, 동시에 진행되는 분석 수는
+     * 배치 크기와 상관없이 receipt.analysis.worker-threads 로 제한되고 호출 속도는 GeminiRateLimiter가 맞춤
+     */
+    public List<ReceiptAnalysisJob> enqueueAll(User user, MultipartFile[] files, Long travelId) throws IOException {
+        MultipartFile[] uploads = Arrays.stream(files)
+            .filter(file -> !file.isEmpty())
+            .toArray(MultipartFile[]::new);
+        if (uploads.length == 0) {
+            throw new IllegalArgumentException("파일을 선택해주세요.");
+        }
+        if (uploads.length > maxBatchSize) {
+            throw new IllegalArgumentException("한 번에 최대 " + maxBatchSize + "개의 영수증만 분석할 수 있습니다.");
+        }
+
+        Travel travel = travelService.getTravelForReceipt(user, travelId);
+        List<String> imageUrls = fileStorageService.saveFiles(uploads);
+
+        List<ReceiptAnalysisJob> jobs = transactionTemplate.execute(status -> {
+            List<ReceiptAnalysisJob> saved = new ArrayList<>();
+            for (int i = 0; i < uploads.length; i++) {
+                saved.add(jobRepository.save(ReceiptAnalysisJob.of(
+                    user.getUserId(), travel.getTravelId(), imageUrls.get(i), uploads[i].getOriginalFilename())));
+                storedFileService.retain(imageUrls.get(i));
+            }
+            return saved;
+        });
+
+        log.info("영수증 분석 작업 등록: jobs={}, travelId={}", jobs.size(), travel.getTravelId());
+        jobs.forEach(job -> dispatch(job.getJobId()));
+        return jobs;
+    }
+
+    // 작업 조회 (본인 작업만)
+    public ReceiptAnalysisJob getJob(Long jobId, User user) {
+        return jobRepository.findByJobIdAndUserId(jobId, user.getUserId())
+            .orElseThrow(() -> new IllegalArgumentException("분석 작업을 찾을 수 없습니다: jobId=" + jobId));
+    }
+
+    /**
+     * 작업 완료 대기 (DONE 또는 FAILED 가 되면 완료되는 future)
+     * 결과 스트리밍(SSE)용. 이 서버의 워커가 끝낸 작업은 바로, 다른 서버가 끝낸 작업은 pollCompletions 주기로 알림
+     * 먼저 대기자를 등록한 뒤 DB 상태를 확인하므로 등록 직전에 끝난 작업도 놓치지 않음
+     * 스트림이 끊기거나 시간 초과되면 cancelAwait 로 대기를 해제해야 함
+     */
+    public CompletableFuture<Long> awaitCompletion(Long jobId) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        completions.compute(jobId, (id, waiters) -> {
+            Set<CompletableFuture<Long>> registered = waiters != null ? waiters : ConcurrentHashMap.newKeySet();
+            registered.add(future);
+            return registered;
+        });
+        jobRepository.findById(jobId)
+            .filter(job -> job.getStatus() == Status.DONE || job.getStatus() == Status.FAILED)
+            .ifPresent(job -> notifyCompletion(jobId));
+        return future;
+    }
+
+    // 완료 대기 해제 (마지막 대기자면 항목 제거)
+    public void cancelAwait(Long jobId, CompletableFuture<Long> future) {
+        completions.computeIfPresent(jobId, (id, waiters) -> {
+            waiters.remove(future);
+            return waiters.isEmpty() ? null : waiters;
+        });
+    }
+
+    /**
+     * 대기 중인 작업의 완료 여부를 DB에서 확인
+     * 임대 만료 후 다른 서버가 이어받아 끝낸 작업은 이 서버의 워커가 알려 주지 않으므로 주기적으로 확인
+     */
+    @Scheduled(fixedDelayString = "${receipt.analysis.completion-poll-interval-ms:3000}")
+    public void pollCompletions() {
+        if (!completions.isEmpty()) {
+            jobRepository.findJobIdsByJobIdInAndStatusIn(List.copyOf(completions.keySet()), FINISHED)
+                .forEach(this::notifyCompletion);
+        }
+    }
+
+    // 저장된 분석 결과 JSON → ReceiptAnalysis
+    public ReceiptAnalysis readResult(ReceiptAnalysisJob job) {
+        if (job.getResultJson() == null) {
+            return null;
+        }
+        return analysisReader.read(job.getResultJson())
+            .orElseGet(() -> {
+                log.warn("저장된 분석 결과 파싱 실패: jobId={}", job.getJobId());
+                return null;
+            });
+    }
+
+    // 기동 시 임대가 만료된 작업을 되돌리고 대기 작업 처리 시작
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        requeueExpiredLeases();
+        dispatchPending();
+    }
+
+    /**
+     * 임대 연장 (heartbeat) 및 만료된 작업 재등록
+     * 임대 시간보다 충분히 짧은 주기로 실행하여, 분석이 오래 걸려도 살아 있는 서버의 작업은 만료되지 않게 한다.
+     */
+    @Scheduled(fixedDelayString = "${receipt.analysis.lease-renew-interval-ms:30000}")
+    public void renewLeases() {
+        if (!leased.isEmpty()) {
+            jobRepository.renewLeases(List.copyOf(leased), leaseOwner, leaseExpiry(), Status.RUNNING);
+        }
+        requeueExpiredLeases();
+    }
+
+    // 워커 큐에 넘기지 못한 대기 작업 재전달
+    @Scheduled(fixedDelayString = "${receipt.analysis.dispatch-interval-ms:5000}")
+    public void dispatchPending() {
+        jobRepository.findJobIdsByStatus(Status.PENDING, PageRequest.of(0, DISPATCH_BATCH_SIZE))
+            .forEach(this::dispatch);
+    }
+
+    // 보관 기간이 지난 완료/실패 작업 정리 (Receipt는 그대로 남음)
+    @Scheduled(fixedDelayString = "${receipt.analysis.cleanup-interval-ms:3600000}")
+    public void deleteExpiredJobs() {
+        int deleted = jobRepository.deleteByStatusUpdatedBefore(FINISHED, LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("오래된 영수증 분석 작업 정리: jobs={}", deleted);
+        }
+    }
+
+    private void dispatch(Long jobId) {
+        if (!dispatched.add(jobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(jobId);
+                } finally {
+                    dispatched.remove(jobId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // 큐가 가득 찬 경우 PENDING 으로 남겨 두고 다음 주기에 다시 넘김
+            dispatched.remove(jobId);
+            log.debug("영수증 분석 큐가 가득 차 다음 주기에 처리: jobId={}", jobId);
+        }
+    }
+
+    private void process(Long jobId) {
+        leased.add(jobId); // 선점 직후 연장이 빠지지 않도록 먼저 등록
+        try {
+            if (jobRepository.claim(jobId, leaseOwner, leaseExpiry(), Status.PENDING, Status.RUNNING) > 0) {
+                analyze(jobId);
+            } // 선점 실패: 다른 워커가 이미 처리 중이거나 끝난 작업
+        } finally {
+            // 결과 기록에 실패해 RUNNING 으로 남은 작업도 연장이 멈추므로 임대 만료 후 다시 처리됨
+            leased.remove(jobId);
+        }
+    }
+
+    private void analyze(Long jobId) {
+        ReceiptAnalysisJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        try {
+            ReceiptAnalysis analysis = geminiService.analyze(readImage(job.getImageUrl())).block();
+
+            transactionTemplate.executeWithoutResult(status -> lockLeased(jobId).ifPresent(saved -> {
+                Travel travel = travelService.getTravelById(saved.getTravelId());
+                Receipt receipt = receiptService.saveReceiptFromAnalysis(travel, analysis, saved.getImageUrl());
+                saved.complete(analysisReader.write(analysis), receipt.getReceiptId());
+                storedFileService.release(saved.getImageUrl()); // 이제 Receipt가 이미지를 참조
+            }));
+            log.info("영수증 분석 작업 완료: jobId={}", jobId);
+            notifyCompletion(jobId);
+
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted() || Exceptions.unwrap(e) instanceof InterruptedException) {
+                // 종료 중 중단된 작업은 RUNNING 으로 남겨 두고 임대가 만료되면 다시 처리
+                log.info("종료로 영수증 분석 작업 중단: jobId={}", jobId);
+                return;
+            }
+            if (e instanceof GeminiUnavailableException) {
+                // 서킷 브레이커가 열렸거나 호출이 몰린 경우 실패 처리하지 않고 대기 상태로 되돌려 다음 주기에 다시 처리
+                log.info("영수증 분석 작업 보류: jobId={}, error={}", jobId, e.getMessage());
+                jobRepository.requeue(jobId, leaseOwner, Status.RUNNING, Status.PENDING);
+                return;
+            }
+            log.warn("영수증 분석 작업 실패: jobId={}, error={}", jobId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> lockLeased(jobId).ifPresent(saved -> {
+                saved.fail(e.getMessage());
+                storedFileService.release(saved.getImageUrl());
+            }));
+            notifyCompletion(jobId);
+        }
+    }
+
+    // 결과 기록 전 작업 잠금 (분석 도중 임대가 만료되어 다른 서버가 가져간 작업이면 기록하지 않음)
+    private Optional<ReceiptAnalysisJob> lockLeased(Long jobId) {
+        Optional<ReceiptAnalysisJob> job = jobRepository.findByIdForUpdate(jobId)
+            .filter(saved -> saved.isLeasedBy(leaseOwner));
+        if (job.isEmpty()) {
+            log.warn("임대가 만료된 영수증 분석 작업 결과 무시: jobId={}", jobId);
+        }
+        return job;
+    }
+
+    private void requeueExpiredLeases() {
+        int requeued = jobRepository.requeueExpired(LocalDateTime.now(), Status.RUNNING, Status.PENDING);
+        if (requeued > 0) {
+            log.info("임대가 만료된 영수증 분석 작업 재등록: jobs={}", requeued);
+        }
+    }
+
+    private LocalDateTime leaseExpiry() {
+        return LocalDateTime.now().plusNanos(leaseMs * 1_000_000);
+    }
+
+    private void notifyCompletion(Long jobId) {
+        Set<CompletableFuture<Long>> waiters = completions.remove(jobId);
+        if (waiters != null) {
+            waiters.forEach(future -> future.complete(jobId));
+        }
+    }
+
+    private byte[] readImage(String imageUrl) throws IOException {
+        Path path = fileStorageService.findUploadedFile(imageUrl.substring(URL_PREFIX.length()))
+            .orElseThrow(() -> new IllegalStateException("영수증 이미지를 찾을 수 없습니다: " + imageUrl));
+        return Files.readAllBytes(path);
+    }
+}
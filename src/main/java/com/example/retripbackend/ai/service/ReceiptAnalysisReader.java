@@ -0,0 +1,162 @@
+package com.example.retripbackend.ai.service;
+
+import com.example.retripbackend.ai.dto.ReceiptAnalysis;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+/**
+ * 모델 응답 텍스트 → ReceiptAnalysis 변환기
+ * 미리 설정한 ObjectReader/ObjectWriter 한 쌍을 공유하며 (요청마다 ObjectMapper 를 만들지 않음)
+ * - 코드 블록(```json ... ```)은 첫 '{' 위치부터 읽고 JSON 객체가 끝나면 멈추는 방식으로 건너뜀 (문자열 복사 없음)
+ * - amount/latitude/longitude: 숫자, "12.50", "¥1,500" 같은 문자열 모두 한 번에 숫자로 변환
+ * - paidAt: "yyyy-MM-dd", "yyyy-MM-ddTHH:mm[:ss]", "yyyy-MM-dd HH:mm[:ss]" 를 하나의 포맷터로 변환
+ * 읽을 수 없는 값은 예외 대신 null
+ */
+@Component
+public class ReceiptAnalysisReader {
+
+    // 날짜 + 선택적인 시간 ('T' 또는 공백 구분), 뒤에 붙은 시간대 등은 무시
+    private static final DateTimeFormatter PAID_AT = new DateTimeFormatterBuilder()
+        .append(DateTimeFormatter.ISO_LOCAL_DATE)
+        .optionalStart()
+        .optionalStart().appendLiteral('T').optionalEnd()
+        .optionalStart().appendLiteral(' ').optionalEnd()
+        .append(DateTimeFormatter.ISO_LOCAL_TIME)
+        .optionalEnd()
+        .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+        .parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0)
+        .toFormatter();
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public ReceiptAnalysisReader(ObjectMapper objectMapper) {
+        ObjectMapper mapper = objectMapper.copy()
+            .registerModule(new SimpleModule("ReceiptAnalysis")
+                .addDeserializer(BigDecimal.class, new DecimalDeserializer())
+                .addDeserializer(Double.class, new DoubleDeserializer())
+                .addDeserializer(LocalDateTime.class, new PaidAtDeserializer()));
+        this.reader = mapper.readerFor(ReceiptAnalysis.class)
+            .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.writer = mapper.writerFor(ReceiptAnalysis.class)
+            .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * 모델 응답(또는 저장해 둔 JSON) 읽기
+     * @return JSON 객체가 없거나 형식이 맞지 않으면 empty
+     */
+    public Optional<ReceiptAnalysis> read(String text) {
+        int start = text == null ? -1 : text.indexOf('{');
+        if (start < 0) {
+            return Optional.empty();
+        }
+        try (StringReader in = new StringReader(text)) {
+            in.skip(start);
+            return Optional.ofNullable(reader.readValue(in));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    // 캐시/작업 결과 저장용 JSON
+    public String write(ReceiptAnalysis analysis) {
+        try {
+            return writer.writeValueAsString(analysis);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("영수증 분석 결과 직렬화 실패", e);
+        }
+    }
+
+    /**
+     * 숫자 문자열 정리 ("¥1,500" → 1500, "$12.50" → 12.50)
+     * 숫자, 소수점, 맨 앞의 '-' 만 남기고, 남은 문자열이 숫자 형식이 아니면 null
+     */
+    static BigDecimal decimalOf(String text) {
+        StringBuilder digits = new StringBuilder(text.length());
+        boolean hasDigit = false;
+        boolean hasPoint = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+                hasDigit = true;
+            } else if (c == '.' && !hasPoint) {
+                digits.append(c);
+                hasPoint = true;
+            } else if (c == '-' && digits.isEmpty()) {
+                digits.append(c);
+            }
+        }
+        return hasDigit ? new BigDecimal(digits.toString()) : null;
+    }
+
+    private static BigDecimal decimalOf(JsonParser p) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> p.getDecimalValue();
+            case VALUE_STRING -> decimalOf(p.getText());
+            default -> {
+                p.skipChildren();
+                yield null;
+            }
+        };
+    }
+
+    private static class DecimalDeserializer extends JsonDeserializer<BigDecimal> {
+
+        @Override
+        public BigDecimal deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return decimalOf(p);
+        }
+    }
+
+    private static class DoubleDeserializer extends JsonDeserializer<Double> {
+
+        @Override
+        public Double deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NUMBER_FLOAT
+                || p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return p.getDoubleValue();
+            }
+            BigDecimal value = decimalOf(p);
+            return value != null ? value.doubleValue() : null;
+        }
+    }
+
+    private static class PaidAtDeserializer extends JsonDeserializer<LocalDateTime> {
+
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String text = p.getValueAsString();
+            if (text == null || text.isBlank()) {
+                p.skipChildren();
+                return null;
+            }
+            try {
+                return LocalDateTime.from(PAID_AT.parse(text.trim(), new ParsePosition(0)));
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+    }
+}
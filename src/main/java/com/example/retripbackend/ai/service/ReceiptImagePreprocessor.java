@@ -0,0 +1,182 @@
+package com.example.retripbackend.ai.service;
+
+import com.example.retripbackend.SNS.service.ExifOrientation;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gemini 전송 전 영수증 이미지 전처리
+ * 휴대폰 원본(수 MB~수십 MB PNG/JPEG)을 그대로 Base64로 보내지 않고,
+ * 글자를 읽기에 충분한 해상도(긴 변 max-dimension)로 줄인 뒤 JPEG로 다시 압축한다.
+ * 전송량과 모델 지연, 요청마다 힙에 올라가는 Base64 문자열 크기가 함께 줄어든다.
+ * - 큰 원본은 디코딩 단계에서 서브샘플링하여 전체 해상도 비트맵을 만들지 않음
+ * - ImageIO로 읽을 수 없는 형식(WebP, HEIC 등)은 실제 MIME 타입을 붙여 원본 그대로 전송
+ * - 이미 충분히 작은 JPEG는 다시 압축하지 않음 (화질 손실 방지)
+ * - 휴대폰 사진의 EXIF Orientation 은 크기 변경 전에 적용 (다시 인코딩하면 EXIF가 사라져 옆으로 누운 영수증이 됨)
+ */
+@Slf4j
+@Component
+public class ReceiptImagePreprocessor {
+
+    public static final String JPEG = "image/jpeg";
+
+    @Value("${gemini.image.max-dimension:1600}")
+    private int maxDimension;
+
+    @Value("${gemini.image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    /**
+     * 모델에 보낼 이미지
+     * @param data 이미지 바이트
+     * @param mimeType 실제 MIME 타입
+     */
+    public record PreparedImage(byte[] data, String mimeType) {}
+
+    public PreparedImage prepare(byte[] image) {
+        String mimeType = detectMimeType(image);
+        try {
+            BufferedImage decoded = read(image);
+            if (decoded == null) {
+                return new PreparedImage(image, mimeType);
+            }
+            int orientation = ExifOrientation.read(new ByteArrayInputStream(image));
+            BufferedImage source = ExifOrientation.apply(decoded, orientation);
+            boolean fits = Math.max(source.getWidth(), source.getHeight()) <= maxDimension;
+            byte[] encoded = encodeJpeg(fits ? flatten(source) : resize(source));
+            // 회전이 필요한 원본은 작아도 돌린 이미지를 보냄
+            if (JPEG.equals(mimeType) && fits && orientation == ExifOrientation.NORMAL && encoded.length >= image.length) {
+                return new PreparedImage(image, mimeType);
+            }
+            log.debug("영수증 이미지 전처리: {} {}B → image/jpeg {}B", mimeType, image.length, encoded.length);
+            return new PreparedImage(encoded, JPEG);
+        } catch (IOException | RuntimeException e) {
+            log.warn("영수증 이미지 전처리 실패, 원본 전송: mimeType={}", mimeType, e);
+            return new PreparedImage(image, mimeType);
+        }
+    }
+
+    // 파일 앞부분(매직 넘버)으로 실제 형식 판별 (확장자/요청 헤더는 신뢰하지 않음)
+    private static String detectMimeType(byte[] image) {
+        if (startsWith(image, 0, 0xFF, 0xD8, 0xFF)) {
+            return JPEG;
+        }
+        if (startsWith(image, 0, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        }
+        if (startsWith(image, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(image, 0, 'R', 'I', 'F', 'F') && startsWith(image, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        if (startsWith(image, 4, 'f', 't', 'y', 'p')) {
+            if (startsWith(image, 8, 'h', 'e', 'i', 'c') || startsWith(image, 8, 'h', 'e', 'i', 'x')) {
+                return "image/heic";
+            }
+            if (startsWith(image, 8, 'm', 'i', 'f', '1') || startsWith(image, 8, 'h', 'e', 'i', 'f')) {
+                return "image/heif";
+            }
+        }
+        return JPEG; // 알 수 없는 형식은 기존과 같이 JPEG로 표시
+    }
+
+    // 긴 변이 max-dimension 이상 유지되는 선에서 서브샘플링하여 디코딩
+    private BufferedImage read(byte[] image) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longest / maxDimension);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 긴 변을 max-dimension 에 맞춤
+    private BufferedImage resize(BufferedImage source) {
+        double scale = (double) maxDimension / Math.max(source.getWidth(), source.getHeight());
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        return draw(source, width, height);
+    }
+
+    // 크기는 그대로 두고 RGB로 변환 (JPEG는 알파 채널이 없으므로 투명 배경은 흰색)
+    private BufferedImage flatten(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB || source.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return source;
+        }
+        return draw(source, source.getWidth(), source.getHeight());
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... magic) {
+        if (data.length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((data[offset + i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.retripbackend.config;
+
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // 팔로워 타임라인 fan-out 전용 스레드 풀 (요청 스레드와 분리)
+    @Bean(name = "timelineExecutor")
+    public Executor timelineExecutor(@Value("${post.timeline.fanout-threads:2}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("timeline-");
+        // 종료 시 대기 중인 fan-out 작업을 마저 처리
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // 영수증 분석 워커 풀 (Gemini 호출 동시 실행 수 제한)
+    // 대기 작업의 원본은 DB이므로 종료 시 큐에 남은 작업은 버리고, 처리 중이던 작업은 다음 기동 시 다시 처리
+    @Bean(name = "receiptAnalysisExecutor")
+    public Executor receiptAnalysisExecutor(
+        @Value("${receipt.analysis.worker-threads:4}") int threads,
+        @Value("${receipt.analysis.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("receipt-analysis-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // non-blocking 영수증 분석 API에서 분석 결과 저장(JPA, 블로킹)을 넘겨받는 스케줄러
+    // 스레드 수를 DB 커넥션 풀보다 작게 두어 분석이 몰려도 저장이 커넥션을 모두 차지하지 않도록 함
+    @Bean(name = "receiptPersistenceScheduler", destroyMethod = "dispose")
+    public Scheduler receiptPersistenceScheduler(
+        @Value("${receipt.analysis.persistence-threads:4}") int threads) {
+        return Schedulers.newBoundedElastic(threads, 1_000, "receipt-persistence");
+    }
+}
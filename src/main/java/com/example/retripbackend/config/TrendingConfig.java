@@ -0,0 +1,29 @@
+package com.example.retripbackend.config;
+
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 추천순(트렌딩) 점수 설정
+ * 점수 = (기본점수 + 좋아요 * likeWeight + 댓글 * commentWeight + 조회수 * viewWeight) * 시간 가중치
+ * 시간 가중치 = 2 ^ ((작성 시각 - epoch) / halfLifeHours)
+ * → 모든 게시글에 같은 배율이 곱해질 뿐이므로 "참여도 * 2^(-경과시간/반감기)" 와 정렬 순서가 동일
+ *
+ * 저장은 log2 공간(지수 + log2(참여도))으로 하므로 epoch 이후 시간이 지나도 double 범위를 넘지 않는다.
+ * epoch 는 지수의 기준점일 뿐이며 바꾸면 다음 재계산에서 모든 게시글에 반영됨
+ */
+@Configuration
+@ConfigurationProperties(prefix = "post.trending")
+@Getter
+@Setter
+public class TrendingConfig {
+    private double baseScore = 1.0;
+    private double likeWeight = 1.0;
+    private double commentWeight = 2.0;
+    private double viewWeight = 0.05;
+    private double halfLifeHours = 48;
+    private LocalDateTime epoch = LocalDateTime.of(2026, 1, 1, 0, 0);
+}
@@ -0,0 +1,25 @@
+package com.example.retripbackend.receipt.dto;
+
+/**
+ * 가계부 목록용 여행별 영수증 집계
+ * 여행마다 영수증 엔티티를 모두 불러와 합산하지 않고 집계 쿼리 한 번으로 사용자의 전체 여행 값을 조회
+ * @param travelId 여행 ID
+ * @param totalAmount 영수증 금액 합계
+ * @param currency 가장 많이 쓰인 통화 (같으면 최근 결제 통화, 영수증이 없으면 null)
+ * @param receiptCount 영수증 수
+ */
+public record TravelLedgerSummary(
+    Long travelId,
+    int totalAmount,
+    String currency,
+    int receiptCount
+) {
+
+    // JPQL 생성자 표현식(SELECT new ...)용 (SUM/COUNT 결과는 Long, 영수증이 없으면 SUM 은 null)
+    public TravelLedgerSummary(Long travelId, Long totalAmount, String currency, Long receiptCount) {
+        this(travelId,
+            totalAmount != null ? totalAmount.intValue() : 0,
+            currency,
+            receiptCount != null ? receiptCount.intValue() : 0);
+    }
+}
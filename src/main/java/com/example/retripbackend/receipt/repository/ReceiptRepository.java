@@ -1,7 +1,9 @@
 package com.example.retripbackend.receipt.repository;
 
+import com.example.retripbackend.receipt.dto.TravelLedgerSummary;
 import com.example.retripbackend.receipt.entity.Receipt;
 import com.example.retripbackend.SNS.entity.Travel;
+import com.example.retripbackend.user.entity.User;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -27,8 +29,23 @@ public interface ReceiptRepository extends JpaRepository<Receipt, Long> {
     @Query("SELECT r FROM Receipt r JOIN FETCH r.travel t JOIN FETCH t.user WHERE r.receiptId = :receiptId")
     Optional<Receipt> findByIdWithTravelAndUser(@Param("receiptId") Long receiptId);
     
-    // 특정 여행의 영수증 amount 합계 조회
-    @Query("SELECT COALESCE(SUM(r.amount), 0) FROM Receipt r WHERE r.travel.travelId = :travelId")
-    int sumAmountByTravelId(@Param("travelId") Long travelId);
+    /**
+     * 사용자의 여행별 영수증 집계 (금액 합계, 가장 많이 쓰인 통화, 영수증 수)
+     * 영수증이 없는 여행도 포함하며, 전체 여행을 쿼리 한 번으로 조회
+     */
+    @Query("""
+        SELECT new com.example.retripbackend.receipt.dto.TravelLedgerSummary(
+            t.travelId,
+            SUM(r.amount),
+            (SELECT r2.currency FROM Receipt r2
+             WHERE r2.travel = t AND r2.currency IS NOT NULL AND r2.currency <> ''
+             GROUP BY r2.currency
+             ORDER BY COUNT(r2) DESC, MAX(r2.paidAt) DESC
+             LIMIT 1),
+            COUNT(r))
+        FROM Travel t LEFT JOIN t.receipts r
+        WHERE t.user = :user
+        GROUP BY t.travelId
+        """)
+    List<TravelLedgerSummary> findLedgerSummariesByUser(@Param("user") User user);
 }
-
@@ -1,15 +1,18 @@
 package com.example.retripbackend.receipt.service;
 
+import com.example.retripbackend.ai.dto.ReceiptAnalysis;
+import com.example.retripbackend.receipt.dto.TravelLedgerSummary;
 import com.example.retripbackend.receipt.entity.Receipt;
 import com.example.retripbackend.receipt.repository.ReceiptRepository;
 import com.example.retripbackend.SNS.entity.Travel;
 import com.example.retripbackend.SNS.repository.TravelRepository;
-import java.time.LocalDate;
+import com.example.retripbackend.SNS.service.StoredFileService;
+import com.example.retripbackend.user.entity.User;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,6 +26,7 @@ public class ReceiptService {
 
     private final ReceiptRepository receiptRepository;
     private final TravelRepository travelRepository;
+    private final StoredFileService storedFileService;
 
     /**
      * 특정 여행의 영수증 목록 조회
@@ -60,84 +64,51 @@ public class ReceiptService {
             });
     }
 
+    /**
+     * 사용자의 여행별 영수증 집계 (travelId → 집계)
+     * 가계부 목록/게시글 작성 화면에서 여행마다 영수증을 조회하지 않도록 쿼리 한 번으로 가져옴
+     */
+    public Map<Long, TravelLedgerSummary> getLedgerSummaries(User user) {
+        return receiptRepository.findLedgerSummariesByUser(user).stream()
+            .collect(Collectors.toMap(TravelLedgerSummary::travelId, Function.identity()));
+    }
+
     /**
      * 영수증 정보 수정
      */
     @Transactional
     public void updateReceipt(Receipt receipt, String storeName, Integer amount, LocalDateTime paidAt,
         String category, String address, String currency) {
+        int previousAmount = receipt.getAmount();
         receipt.updateReceiptInfo(storeName, amount, paidAt, category, address, currency);
         receiptRepository.save(receipt);
         log.info("영수증 수정 완료: receiptId={}, storeName={}, amount={}", 
             receipt.getReceiptId(), receipt.getStoreName(), receipt.getAmount());
         
-        // Travel의 totalAmount 업데이트
-        updateTravelTotalAmount(receipt.getTravel().getTravelId());
+        // Travel의 totalAmount 에 금액 차이만 반영
+        addTravelTotalAmount(receipt.getTravel().getTravelId(), receipt.getAmount() - previousAmount);
     }
 
     /**
      * Gemini 분석 결과를 기반으로 Receipt 저장
+     * 숫자/날짜는 ReceiptAnalysisReader 가 이미 변환해 두었으므로 없는 값만 기본값으로 채움
      * 
      * @param travel Travel 엔티티
-     * @param receiptData Gemini가 반환한 분석 결과 (Map)
+     * @param analysis Gemini 분석 결과
      * @param imageUrl 영수증 이미지 URL (선택사항)
      * @return 저장된 Receipt
      */
     @Transactional
-    public Receipt saveReceiptFromAnalysis(Travel travel, Map<String, Object> receiptData, String imageUrl) {
-        // Gemini JSON 데이터를 Receipt 엔티티로 변환
-        String storeName = (String) receiptData.getOrDefault("placeName", "알 수 없음");
-        
-        // amount 변환 (double -> int)
-        int amount = 0;
-        Object amountObj = receiptData.get("amount");
-        if (amountObj instanceof Number) {
-            amount = ((Number) amountObj).intValue();
-        } else if (amountObj instanceof String) {
-            try {
-                amount = (int) Double.parseDouble((String) amountObj);
-            } catch (NumberFormatException e) {
-                log.warn("amount 파싱 실패: {}", amountObj);
-            }
-        }
-        
-        // paidAt 변환 (ISO 8601 String -> LocalDateTime)
-        LocalDateTime paidAt = parsePaidAt(receiptData.get("paidAt"));
-        
+    public Receipt saveReceiptFromAnalysis(Travel travel, ReceiptAnalysis analysis, String imageUrl) {
+        String storeName = analysis.placeName() != null ? analysis.placeName() : "알 수 없음";
+        int amount = analysis.amount() != null ? analysis.amount().intValue() : 0;
+        LocalDateTime paidAt = analysis.paidAt() != null ? analysis.paidAt() : LocalDateTime.now();
         // category는 선택사항 (Gemini JSON에 없으면 null)
-        String category = (String) receiptData.get("category");
-        
-        // address
-        String address = (String) receiptData.get("address");
-        
-        // currency
-        String currency = (String) receiptData.get("currency");
-        
-        // latitude
-        Double latitude = null;
-        Object latitudeObj = receiptData.get("latitude");
-        if (latitudeObj instanceof Number) {
-            latitude = ((Number) latitudeObj).doubleValue();
-        } else if (latitudeObj instanceof String) {
-            try {
-                latitude = Double.parseDouble((String) latitudeObj);
-            } catch (NumberFormatException e) {
-                log.warn("latitude 파싱 실패: {}", latitudeObj);
-            }
-        }
-        
-        // longitude
-        Double longitude = null;
-        Object longitudeObj = receiptData.get("longitude");
-        if (longitudeObj instanceof Number) {
-            longitude = ((Number) longitudeObj).doubleValue();
-        } else if (longitudeObj instanceof String) {
-            try {
-                longitude = Double.parseDouble((String) longitudeObj);
-            } catch (NumberFormatException e) {
-                log.warn("longitude 파싱 실패: {}", longitudeObj);
-            }
-        }
+        String category = analysis.category();
+        String address = analysis.address();
+        String currency = analysis.currency();
+        Double latitude = analysis.latitude();
+        Double longitude = analysis.longitude();
         
         // Receipt 생성 및 저장
         Receipt receipt = Receipt.builder()
@@ -154,64 +125,28 @@ public class ReceiptService {
             .build();
         
         Receipt savedReceipt = receiptRepository.save(receipt);
+        storedFileService.retain(imageUrl);
         
         log.info("영수증 저장 완료: receiptId={}, storeName={}, amount={}, currency={}, address={}", 
             savedReceipt.getReceiptId(), storeName, amount, currency, address);
         
-        // Travel의 totalAmount 업데이트
-        updateTravelTotalAmount(travel.getTravelId());
+        // Travel의 totalAmount 에 이번 영수증 금액만 더함
+        addTravelTotalAmount(travel.getTravelId(), amount);
         
         return savedReceipt;
     }
     
     /**
-     * Travel의 totalAmount를 해당 여행의 모든 영수증 amount 합계로 업데이트
-     */
-    @Transactional
-    public void updateTravelTotalAmount(Long travelId) {
-        int totalAmount = receiptRepository.sumAmountByTravelId(travelId);
-        Travel travel = travelRepository.findById(travelId)
-            .orElseThrow(() -> new IllegalArgumentException("여행을 찾을 수 없습니다: travelId=" + travelId));
-        travel.updateTotalAmount(totalAmount);
-        travelRepository.save(travel);
-        log.info("Travel totalAmount 업데이트: travelId={}, totalAmount={}", travelId, totalAmount);
-    }
-
-    /**
-     * paidAt 파싱 (ISO 8601 String -> LocalDateTime)
+     * Travel의 totalAmount 증감
+     * 모든 영수증을 다시 합산하지 않고 원자적 UPDATE로 차이만 반영 (어긋난 값은 TravelTotalAmountReconciler 가 보정)
      */
-    private LocalDateTime parsePaidAt(Object paidAtObj) {
-        if (paidAtObj == null) {
-            return LocalDateTime.now();
+    private void addTravelTotalAmount(Long travelId, int delta) {
+        if (delta == 0) {
+            return;
         }
-        
-        String paidAtStr = paidAtObj.toString();
-        if (paidAtStr.isEmpty()) {
-            return LocalDateTime.now();
-        }
-        
-        // 여러 날짜 형식 시도
-        DateTimeFormatter[] formatters = {
-            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
-            DateTimeFormatter.ISO_LOCAL_DATE,
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
-            DateTimeFormatter.ofPattern("yyyy-MM-dd")
-        };
-        
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                if (paidAtStr.contains("T")) {
-                    return LocalDateTime.parse(paidAtStr, formatter);
-                } else {
-                    return LocalDate.parse(paidAtStr, formatter).atStartOfDay();
-                }
-            } catch (DateTimeParseException e) {
-                // 다음 형식 시도
-            }
+        if (travelRepository.addTotalAmount(travelId, delta) == 0) {
+            throw new IllegalArgumentException("여행을 찾을 수 없습니다: travelId=" + travelId);
         }
-        
-        log.warn("paidAt 파싱 실패, 현재 시간 사용: {}", paidAtStr);
-        return LocalDateTime.now();
+        log.info("Travel totalAmount 반영: travelId={}, delta={}", travelId, delta);
     }
 }
-
@@ -0,0 +1,39 @@
+package com.example.retripbackend.receipt.service;
+
+import com.example.retripbackend.SNS.repository.TravelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 여행 총액 보정
+ * 총액은 영수증 저장/수정 시 차이만 더해 가므로, 직접 SQL 수정이나 영수증 삭제 경로 누락 등으로 합계와 어긋날 수 있다.
+ * 주기적으로 영수증 합계와 다른 여행만 골라 다시 맞춘다.
+ * 한 번에 전체 테이블을 잠그지 않도록 travel_id 범위 단위로 나누어 각각 짧은 트랜잭션으로 실행
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TravelTotalAmountReconciler {
+
+    private static final long CHUNK_SIZE = 1_000;
+
+    private final TravelRepository travelRepository;
+
+    @Scheduled(fixedDelayString = "${travel.total-amount.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        Long maxId = travelRepository.findMaxTravelId();
+        if (maxId == null) {
+            return;
+        }
+
+        int corrected = 0;
+        for (long from = 0; from < maxId; from += CHUNK_SIZE) {
+            corrected += travelRepository.reconcileTotalAmounts(from, from + CHUNK_SIZE);
+        }
+        if (corrected > 0) {
+            log.warn("영수증 합계와 다른 여행 총액 보정: travels={}", corrected);
+        }
+    }
+}
@@ -1,21 +1,25 @@
 package com.example.retripbackend.user.controller;
 
+import com.example.retripbackend.SNS.dto.PostSummary;
 import com.example.retripbackend.SNS.entity.Post;
 import com.example.retripbackend.SNS.entity.Travel;
 import com.example.retripbackend.SNS.repository.PostLikeRepository;
 import com.example.retripbackend.SNS.service.FollowService;
+import com.example.retripbackend.SNS.service.PostLikeService;
 import com.example.retripbackend.SNS.service.PostService;
 import com.example.retripbackend.SNS.service.TravelService;
+import com.example.retripbackend.receipt.dto.TravelLedgerSummary;
 import com.example.retripbackend.receipt.entity.Receipt;
 import com.example.retripbackend.receipt.service.ReceiptService;
 import com.example.retripbackend.user.entity.User;
 import com.example.retripbackend.user.service.CustomUserDetailsService;
 import com.example.retripbackend.user.service.UserService;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -38,6 +42,7 @@ public class UserController {
     private final TravelService travelService;
     private final FollowService followService;
     private final PostLikeRepository postLikeRepository;
+    private final PostLikeService postLikeService;
     private final ReceiptService receiptService;
 
     // 내 정보 조회
@@ -116,10 +121,11 @@ public class UserController {
         @RequestParam(defaultValue = "0") int page,
         Model model) {
         User user = userDetails.getUser();
-        Page<Post> posts = postService.getUserPosts(user, page, 10);
+        Slice<PostSummary> posts = postService.getUserPosts(user, page, 10);
 
         model.addAttribute("user", user);
         model.addAttribute("posts", posts);
+        model.addAttribute("likedPostIds", postLikeService.getLikedPostIds(user, posts.getContent()));
 
         return "user/posts";
     }
@@ -147,21 +153,13 @@ public class UserController {
         // 사용자의 모든 Travel 목록 조회
         List<Travel> travels = travelService.getUserTravels(user);
         
-        // 각 Travel의 총 경비 계산
+        // 각 Travel의 총 경비와 통화 (여행별 영수증 집계 쿼리 한 번)
+        Map<Long, TravelLedgerSummary> ledgers = receiptService.getLedgerSummaries(user);
         List<TravelWithTotalAmount> travelsWithAmount = travels.stream()
             .map(travel -> {
-                List<Receipt> receipts = receiptService.getReceiptsByTravel(travel);
-                int totalAmount = receipts.stream()
-                    .mapToInt(Receipt::getAmount)
-                    .sum();
-                
-                // 통화 결정
-                String currency = receipts.stream()
-                    .filter(r -> r.getCurrency() != null && !r.getCurrency().isEmpty())
-                    .map(Receipt::getCurrency)
-                    .findFirst()
-                    .orElse("-");
-                
+                TravelLedgerSummary ledger = ledgers.get(travel.getTravelId());
+                int totalAmount = ledger != null ? ledger.totalAmount() : 0;
+                String currency = ledger != null && ledger.currency() != null ? ledger.currency() : "-";
                 return new TravelWithTotalAmount(travel, totalAmount, currency);
             })
             .collect(Collectors.toList());
@@ -507,14 +505,17 @@ public class UserController {
 
     // 특정 사용자의 게시글 목록
     @GetMapping("/{userId}/posts")
-    public String userPosts(@PathVariable Long userId,
+    public String userPosts(@AuthenticationPrincipal CustomUserDetailsService.CustomUserDetails userDetails,
+        @PathVariable Long userId,
         @RequestParam(defaultValue = "0") int page,
         Model model) {
         User user = userService.findById(userId);
-        Page<Post> posts = postService.getUserPosts(user, page, 10);
+        Slice<PostSummary> posts = postService.getUserPosts(user, page, 10);
+        User currentUser = (userDetails != null) ? userDetails.getUser() : null;
 
         model.addAttribute("user", user);
         model.addAttribute("posts", posts);
+        model.addAttribute("likedPostIds", postLikeService.getLikedPostIds(currentUser, posts.getContent()));
 
         return "user/posts";
     }
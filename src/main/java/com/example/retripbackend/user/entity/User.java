@@ -37,6 +37,9 @@ public class User extends BaseEntity {
     @Column(length = 200)
     private String bio;
 
+    @Column(nullable = false)
+    private int followerCount = 0;  // 팔로워 수 (팔로우/언팔로우 시 원자적 증감)
+
     // ===== 정적 팩토리 메서드 =====
 
     public static User of(String email, String encodedPassword, String name) {
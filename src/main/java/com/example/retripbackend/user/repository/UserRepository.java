@@ -1,9 +1,15 @@
 package com.example.retripbackend.user.repository;
 
 import com.example.retripbackend.user.entity.User;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -19,4 +25,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // 이름 중복 체크 (선택사항 - 필요시 사용)
     boolean existsByName(String name);
-}
\ No newline at end of file
+
+    // 팔로워 수 조회 (엔티티 로딩 없이)
+    @Query("SELECT u.followerCount FROM User u WHERE u.userId = :userId")
+    int findFollowerCount(@Param("userId") Long userId);
+
+    // 팔로워 수 원자적 증감
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount + 1 WHERE u.userId = :userId")
+    int incrementFollowerCount(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount - 1 WHERE u.userId = :userId AND u.followerCount > 0")
+    int decrementFollowerCount(@Param("userId") Long userId);
+
+    // 팔로워 수를 follows 기준으로 다시 계산 (user_id 범위 단위, 마이그레이션용)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users u SET u.follower_count = " +
+        "(SELECT COUNT(*) FROM follows f WHERE f.following_id = u.user_id) " +
+        "WHERE u.user_id > :fromId AND u.user_id <= :toId",
+        nativeQuery = true)
+    int recountFollowerCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT MAX(u.userId) FROM User u")
+    Long findMaxUserId();
+
+    // 사용자 ID 목록 (user_id 순 keyset, 마이그레이션 배치용)
+    @Query("SELECT u.userId FROM User u WHERE u.userId > :afterId ORDER BY u.userId")
+    List<Long> findUserIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,159 @@
+package com.example.retripbackend.SNS.repository;
+
+import com.example.retripbackend.SNS.dto.PostSummary;
+import com.example.retripbackend.SNS.entity.Post;
+import com.example.retripbackend.SNS.entity.Travel;
+import com.example.retripbackend.config.JpaConfig;
+import com.example.retripbackend.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(JpaConfig.class) // createdAt 자동 저장 (Auditing)
+@DisplayName("PostRepository 피드 조회 테스트")
+class PostRepositoryTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        // 작성자/여행이 서로 다른 게시글을 한 페이지 이상 준비
+        for (int i = 0; i < PAGE_SIZE + 5; i++) {
+            User user = User.of("user" + i + "@retrip.com", "password", "user" + i);
+            entityManager.persist(user);
+
+            Travel travel = Travel.builder()
+                .user(user)
+                .country("Japan")
+                .city(i % 2 == 0 ? "Tokyo" : "Osaka")
+                .title("여행 " + i)
+                .startDate(LocalDate.of(2024, 1, 1))
+                .endDate(LocalDate.of(2024, 1, 5))
+                .build();
+            entityManager.persist(travel);
+
+            entityManager.persist(Post.builder()
+                .author(user)
+                .travel(travel)
+                .title("게시글 " + i)
+                .content("내용 " + i)
+                .build());
+
+            if (i == 0) {
+                author = user;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("최신순 피드 한 페이지를 작성자/여행 정보까지 쿼리 1회로 조회")
+    void findLatestSummaries_SingleStatementPerPage() {
+        // given
+        Statistics statistics = statistics();
+
+        // when
+        List<PostSummary> posts = postRepository.findLatestSummaries(PageRequest.of(0, PAGE_SIZE + 1));
+        posts.forEach(this::renderLikeTemplate);
+
+        // then
+        assertThat(posts).hasSize(PAGE_SIZE + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("커서 이후 페이지도 쿼리 1회로 조회하며 이전 페이지와 겹치지 않음")
+    void findLatestSummariesAfter_SingleStatementPerPage() {
+        // given
+        List<PostSummary> firstPage = postRepository.findLatestSummaries(PageRequest.of(0, PAGE_SIZE));
+        PostSummary last = firstPage.get(PAGE_SIZE - 1);
+        Statistics statistics = statistics();
+
+        // when
+        List<PostSummary> nextPage = postRepository.findLatestSummariesAfter(
+            last.createdAt(), last.postId(), PageRequest.of(0, PAGE_SIZE));
+        nextPage.forEach(this::renderLikeTemplate);
+
+        // then
+        assertThat(nextPage).hasSize(5);
+        assertThat(nextPage).extracting(PostSummary::postId)
+            .doesNotContainAnyElementsOf(firstPage.stream().map(PostSummary::postId).toList());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("도시 검색 결과는 COUNT 없이 쿼리 1회로 조회")
+    void searchSummariesByCity_SingleStatementPerPage() {
+        // given
+        Statistics statistics = statistics();
+
+        // when
+        Slice<PostSummary> posts = postRepository.searchSummariesByCity("tok", PageRequest.of(0, PAGE_SIZE));
+        posts.forEach(this::renderLikeTemplate);
+
+        // then
+        assertThat(posts.getContent()).hasSize(8);
+        assertThat(posts.getContent()).allMatch(post -> post.travel().city().equals("Tokyo"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("사용자 게시글 목록도 쿼리 1회로 조회")
+    void findSummariesByAuthor_SingleStatementPerPage() {
+        // given
+        Statistics statistics = statistics();
+
+        // when
+        Slice<PostSummary> posts = postRepository.findSummariesByAuthor(author, PageRequest.of(0, PAGE_SIZE));
+        posts.forEach(this::renderLikeTemplate);
+
+        // then
+        assertThat(posts.getContent()).hasSize(1);
+        assertThat(posts.hasNext()).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // 피드 템플릿이 참조하는 값들을 그대로 읽어 추가 조회가 없는지 확인
+    private void renderLikeTemplate(PostSummary post) {
+        assertThat(post.author().name()).isNotBlank();
+        assertThat(post.travel().city()).isNotBlank();
+        assertThat(post.travel().country()).isNotBlank();
+        assertThat(post.travel().startDate()).isNotNull();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
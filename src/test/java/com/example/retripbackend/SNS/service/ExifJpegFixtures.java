@@ -0,0 +1,84 @@
+package com.example.retripbackend.SNS.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import javax.imageio.ImageIO;
+
+/**
+ * EXIF Orientation 테스트용 JPEG 생성
+ * 바이너리 파일 대신 코드로 만든다: 왼쪽 절반은 빨강, 오른쪽 절반은 파랑인 이미지에
+ * Orientation 태그 하나만 있는 APP1(EXIF) 세그먼트를 JFIF APP0 뒤에 끼워 넣음
+ */
+public final class ExifJpegFixtures {
+
+    private ExifJpegFixtures() {
+    }
+
+    public static byte[] orientedJpeg(int width, int height, int orientation, ByteOrder byteOrder) throws IOException {
+        byte[] jpeg = plainJpeg(width, height);
+        byte[] app1 = exifSegment(orientation, byteOrder);
+
+        int insertAt = 2; // SOI 뒤
+        if ((jpeg[2] & 0xFF) == 0xFF && (jpeg[3] & 0xFF) == 0xE0) {
+            insertAt = 4 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF)); // APP0 뒤
+        }
+        byte[] result = new byte[jpeg.length + app1.length];
+        System.arraycopy(jpeg, 0, result, 0, insertAt);
+        System.arraycopy(app1, 0, result, insertAt, app1.length);
+        System.arraycopy(jpeg, insertAt, result, insertAt + app1.length, jpeg.length - insertAt);
+        return result;
+    }
+
+    public static byte[] plainJpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, width / 2, height);
+        g.setColor(Color.BLUE);
+        g.fillRect(width / 2, 0, width - width / 2, height);
+        g.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    public static boolean isRed(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 180 && color.getBlue() < 80;
+    }
+
+    public static boolean isBlue(int rgb) {
+        Color color = new Color(rgb);
+        return color.getBlue() > 180 && color.getRed() < 80;
+    }
+
+    // FFE1 + 길이 + "Exif\0\0" + TIFF 헤더 + IFD0(Orientation 1개)
+    private static byte[] exifSegment(int orientation, ByteOrder byteOrder) {
+        ByteBuffer tiff = ByteBuffer.allocate(26).order(byteOrder);
+        tiff.put(byteOrder == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        tiff.put(byteOrder == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        tiff.putShort((short) 42);
+        tiff.putInt(8);                   // IFD0 위치
+        tiff.putShort((short) 1);         // 항목 수
+        tiff.putShort((short) 0x0112);    // Orientation
+        tiff.putShort((short) 3);         // SHORT
+        tiff.putInt(1);
+        tiff.putShort((short) orientation);
+        tiff.putShort((short) 0);
+        tiff.putInt(0);                   // 다음 IFD 없음
+
+        int length = 2 + 6 + tiff.capacity();
+        ByteBuffer segment = ByteBuffer.allocate(2 + length);
+        segment.put((byte) 0xFF).put((byte) 0xE1);
+        segment.putShort((short) length);
+        segment.put(new byte[]{'E', 'x', 'i', 'f', 0, 0});
+        segment.put(tiff.array());
+        return segment.array();
+    }
+}
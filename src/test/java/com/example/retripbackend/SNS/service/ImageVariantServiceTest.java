@@ -0,0 +1,84 @@
+package com.example.retripbackend.SNS.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+
+import static com.example.retripbackend.SNS.service.ExifJpegFixtures.isBlue;
+import static com.example.retripbackend.SNS.service.ExifJpegFixtures.isRed;
+import static com.example.retripbackend.SNS.service.ExifJpegFixtures.orientedJpeg;
+import static com.example.retripbackend.SNS.service.ExifJpegFixtures.plainJpeg;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ImageVariantService EXIF 방향 테스트")
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private final ImageVariantService imageVariantService = new ImageVariantService();
+
+    @AfterEach
+    void tearDown() {
+        imageVariantService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Orientation 6(시계 방향 90도) 사진의 변형은 세로로 돌려서 저장")
+    void ensureVariants_RotatesByExifOrientation() throws IOException {
+        // given: 가로 64 x 세로 32, 왼쪽 빨강 / 오른쪽 파랑
+        Path original = uploadDir.resolve("photo.jpg");
+        Files.write(original, orientedJpeg(64, 32, 6, ByteOrder.BIG_ENDIAN));
+        ReflectionTestUtils.setField(imageVariantService, "quality", 0.9f);
+        ReflectionTestUtils.setField(imageVariantService, "requestTimeoutMs", 10_000L);
+
+        // when
+        boolean created = imageVariantService.ensureVariants(original);
+
+        // then: 세로 이미지가 되고, 왼쪽(빨강)이 위로 감
+        assertThat(created).isTrue();
+        BufferedImage variant = ImageIO.read(ImageVariantService.variantPath(original, 320).toFile());
+        assertThat(variant.getWidth()).isEqualTo(32);
+        assertThat(variant.getHeight()).isEqualTo(64);
+        assertThat(isRed(variant.getRGB(16, 8))).isTrue();
+        assertThat(isBlue(variant.getRGB(16, 56))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Orientation 2(좌우 반전, little-endian EXIF) 사진은 크기를 유지한 채 뒤집음")
+    void ensureVariants_MirrorsLittleEndianExif() throws IOException {
+        // given
+        Path original = uploadDir.resolve("mirrored.jpg");
+        Files.write(original, orientedJpeg(64, 32, 2, ByteOrder.LITTLE_ENDIAN));
+        ReflectionTestUtils.setField(imageVariantService, "quality", 0.9f);
+        ReflectionTestUtils.setField(imageVariantService, "requestTimeoutMs", 10_000L);
+
+        // when
+        imageVariantService.ensureVariants(original);
+
+        // then
+        BufferedImage variant = ImageIO.read(ImageVariantService.variantPath(original, 320).toFile());
+        assertThat(variant.getWidth()).isEqualTo(64);
+        assertThat(isBlue(variant.getRGB(8, 16))).isTrue();
+        assertThat(isRed(variant.getRGB(56, 16))).isTrue();
+    }
+
+    @Test
+    @DisplayName("EXIF가 없는 JPEG와 JPEG가 아닌 데이터는 기본 방향")
+    void read_WithoutExif() throws IOException {
+        assertThat(ExifOrientation.read(new ByteArrayInputStream(plainJpeg(8, 8))))
+            .isEqualTo(ExifOrientation.NORMAL);
+        assertThat(ExifOrientation.read(new ByteArrayInputStream(new byte[]{(byte) 0x89, 'P', 'N', 'G'})))
+            .isEqualTo(ExifOrientation.NORMAL);
+    }
+}
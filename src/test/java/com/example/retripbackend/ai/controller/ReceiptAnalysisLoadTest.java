@@ -0,0 +1,337 @@
+package com.example.retripbackend.ai.controller;
+
+import com.example.retripbackend.SNS.entity.Travel;
+import com.example.retripbackend.SNS.repository.TravelRepository;
+import com.example.retripbackend.ai.stub.FakeGeminiServer;
+import com.example.retripbackend.user.entity.User;
+import com.example.retripbackend.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 영수증 분석 API 부하 테스트 (/receipt/analyze/api)
+ * 가짜 Gemini 서버(FakeGeminiServer)를 띄우고 애플리케이션 전체를 실행한 뒤,
+ * 목표 RPS 로 요청을 보내(open-loop) p50/p99 지연 시간, 처리량, 상태 코드별 건수, 힙 사용량을 출력한다.
+ * 실제 쿼터를 쓰지 않으므로 릴리스 전에 스레드 풀/쿼터 설정을 정하는 데 사용
+ *
+ * 일반 test 에서는 제외되며 다음과 같이 실행:
+ * ./gradlew loadTest -Dload.rps=50 -Dload.duration-seconds=60 -Dload.fake.latency-median-ms=2000
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.retripbackend=INFO",
+    "logging.level.org.springframework.security=INFO",
+    "gemini.api.key=load-test-key"
+})
+@DisplayName("영수증 분석 API 부하 테스트")
+class ReceiptAnalysisLoadTest {
+
+    private static final String EMAIL = "load@retrip.com";
+    private static final String PASSWORD = "password";
+    private static final Path IMAGE_DIR = Path.of("src/test/resources/testImage");
+
+    private static FakeGeminiServer fakeGemini;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelRepository travelRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .cookieHandler(new CookieManager())
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    @DynamicPropertySource
+    static void geminiProperties(DynamicPropertyRegistry registry) throws IOException {
+        fakeGemini = new FakeGeminiServer()
+            .latency(longProperty("load.fake.latency-median-ms", 1500), longProperty("load.fake.latency-p99-ms", 6000))
+            .errorRate(doubleProperty("load.fake.error-rate", 0))
+            .rateLimitRate(doubleProperty("load.fake.rate-limit-rate", 0))
+            .start(0);
+        registry.add("gemini.base-url", fakeGemini::baseUrl);
+        // 가짜 서버 대상이므로 기본 쿼터는 충분히 크게 (쿼터 설정 자체를 시험할 때는 덮어씀)
+        registry.add("gemini.rate-limit.requests-per-minute", () -> longProperty("load.gemini-rpm", 60_000));
+        registry.add("gemini.rate-limit.burst", () -> longProperty("load.gemini-burst", 100));
+    }
+
+    @AfterAll
+    static void stopFakeGemini() {
+        fakeGemini.close();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        if (userRepository.findByEmail(EMAIL).isEmpty()) {
+            User user = userRepository.save(User.of(EMAIL, passwordEncoder.encode(PASSWORD), "부하테스트"));
+            travelRepository.save(Travel.builder()
+                .user(user)
+                .country("Japan")
+                .city("Tokyo")
+                .title("부하 테스트 여행")
+                .startDate(LocalDate.of(2024, 1, 1))
+                .endDate(LocalDate.of(2024, 1, 5))
+                .build());
+        }
+        login();
+    }
+
+    @Test
+    @DisplayName("목표 RPS 로 영수증 분석 요청 후 지연 시간/처리량/힙 사용량 보고")
+    void analyzeReceiptApi_UnderTargetRps() throws Exception {
+        // given
+        int rps = (int) longProperty("load.rps", 20);
+        int durationSeconds = (int) longProperty("load.duration-seconds", 30);
+        boolean uniqueImages = Boolean.parseBoolean(System.getProperty("load.unique-images", "true"));
+        List<byte[]> images = loadImages();
+        int total = rps * durationSeconds;
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        LongAdder failures = new LongAdder();
+        ConcurrentLinkedQueue<CompletableFuture<Void>> requests = new ConcurrentLinkedQueue<>();
+        AtomicInteger sent = new AtomicInteger();
+        HeapSampler heap = new HeapSampler();
+
+        // when - 응답을 기다리지 않고 일정 간격으로 요청 (open-loop)
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        heap.start(scheduler);
+        long startedAt = System.nanoTime();
+        CompletableFuture<Void> allSent = new CompletableFuture<>();
+        scheduler.scheduleAtFixedRate(() -> {
+            int index = sent.getAndIncrement();
+            if (index >= total) {
+                allSent.complete(null);
+                return;
+            }
+            byte[] image = images.get(index % images.size());
+            HttpRequest request = analyzeRequest(uniqueImages ? withTextChunk(image, "load-" + index) : image, index);
+            long requestedAt = System.nanoTime();
+            requests.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenAccept(response -> {
+                    latencies.add(System.nanoTime() - requestedAt);
+                    statusCounts.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+                })
+                .exceptionally(e -> {
+                    failures.increment();
+                    return null;
+                }));
+        }, 0, TimeUnit.SECONDS.toNanos(1) / rps, TimeUnit.NANOSECONDS);
+
+        allSent.get(durationSeconds + 60L, TimeUnit.SECONDS);
+        CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        scheduler.shutdownNow();
+        heap.sample();
+
+        // then
+        report(rps, durationSeconds, elapsedNanos, latencies, statusCounts, failures.sum(), heap);
+        assertThat(latencies.size() + failures.sum()).isEqualTo(total);
+    }
+
+    private void login() throws IOException, InterruptedException {
+        String form = "email=" + EMAIL + "&password=" + PASSWORD;
+        HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri("/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(),
+            HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        assertThat(location).as("로그인 성공 후 이동 경로").doesNotContain("error");
+    }
+
+    // multipart/form-data 요청 (file)
+    private HttpRequest analyzeRequest(byte[] image, int index) {
+        String boundary = "retrip-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 256);
+        body.writeBytes(("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"receipt-" + index + ".png\"\r\n"
+            + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(image);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return HttpRequest.newBuilder(uri("/receipt/analyze/api"))
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .timeout(Duration.ofMinutes(3))
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+            .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private List<byte[]> loadImages() throws IOException {
+        try (var files = Files.list(IMAGE_DIR)) {
+            List<byte[]> images = files
+                .filter(path -> path.toString().endsWith(".png"))
+                .sorted()
+                .map(path -> {
+                    try {
+                        return Files.readAllBytes(path);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+            assertThat(images).as("테스트 영수증 이미지").isNotEmpty();
+            return images;
+        }
+    }
+
+    /**
+     * IHDR 바로 뒤에 tEXt 청크를 넣어 이미지 내용은 같고 바이트만 다른 PNG 생성
+     * 분석 결과 캐시(이미지 해시)에 걸리지 않고 매 요청이 전처리와 Gemini 호출까지 가도록 함
+     */
+    private static byte[] withTextChunk(byte[] png, String text) {
+        int ihdrEnd = 8 + 4 + 4 + 13 + 4; // 시그니처 + IHDR(길이, 타입, 데이터, CRC)
+        byte[] type = "tEXt".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] data = ("Comment\0" + text).getBytes(StandardCharsets.ISO_8859_1);
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(data);
+
+        ByteBuffer chunk = ByteBuffer.allocate(4 + type.length + data.length + 4)
+            .putInt(data.length)
+            .put(type)
+            .put(data)
+            .putInt((int) crc.getValue());
+
+        byte[] result = Arrays.copyOf(png, png.length + chunk.capacity());
+        System.arraycopy(chunk.array(), 0, result, ihdrEnd, chunk.capacity());
+        System.arraycopy(png, ihdrEnd, result, ihdrEnd + chunk.capacity(), png.length - ihdrEnd);
+        return result;
+    }
+
+    private void report(int rps, int durationSeconds, long elapsedNanos, ConcurrentLinkedQueue<Long> latencies,
+        Map<Integer, LongAdder> statusCounts, long failures, HeapSampler heap) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        long succeeded = statusCounts.getOrDefault(200, new LongAdder()).sum();
+        double elapsedSeconds = elapsedNanos / 1e9;
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+
+        System.out.println("========================================");
+        System.out.printf("목표: %d RPS x %d초, 가짜 Gemini 호출 %d회%n", rps, durationSeconds, fakeGemini.getRequestCount());
+        System.out.printf("응답: %d건 %s, 연결 실패 %d건%n", sorted.length, statuses, failures);
+        System.out.printf("지연 시간: p50 %d ms, p99 %d ms, max %d ms%n",
+            percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+        System.out.printf("처리량: %.1f req/s (성공 %.1f req/s)%n", sorted.length / elapsedSeconds, succeeded / elapsedSeconds);
+        System.out.printf("힙: 시작 %d MB, 최대 %d MB, 종료 %d MB (최대 허용 %d MB)%n",
+            heap.startedMb(), heap.peakMb(), heap.currentMb(), heap.maxMb());
+        System.out.println("========================================");
+    }
+
+    private static long percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]);
+    }
+
+    private static long longProperty(String key, long defaultValue) {
+        return Long.parseLong(System.getProperty(key, String.valueOf(defaultValue)));
+    }
+
+    private static double doubleProperty(String key, double defaultValue) {
+        return Double.parseDouble(System.getProperty(key, String.valueOf(defaultValue)));
+    }
+
+    // 테스트 중 힙 사용량 샘플링 (애플리케이션과 같은 JVM)
+    private static class HeapSampler {
+
+        private static final long MB = 1024 * 1024;
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long started = used();
+        private final AtomicLong peak = new AtomicLong(started);
+        private volatile long current = started;
+
+        void start(ScheduledExecutorService scheduler) {
+            scheduler.scheduleAtFixedRate(this::sample, 0, 200, TimeUnit.MILLISECONDS);
+        }
+
+        void sample() {
+            current = used();
+            peak.accumulateAndGet(current, Math::max);
+        }
+
+        long startedMb() {
+            return started / MB;
+        }
+
+        long peakMb() {
+            return peak.get() / MB;
+        }
+
+        long currentMb() {
+            return current / MB;
+        }
+
+        long maxMb() {
+            return memory.getHeapMemoryUsage().getMax() / MB;
+        }
+
+        private long used() {
+            return memory.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
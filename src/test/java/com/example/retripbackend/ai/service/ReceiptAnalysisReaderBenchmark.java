@@ -0,0 +1,149 @@
+package com.example.retripbackend.ai.service;
+
+import com.example.retripbackend.ai.dto.ReceiptAnalysis;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 영수증 응답 파싱 비용 측정 (1건당 시간, 할당 바이트)
+ * - 기존 방식: substring 으로 코드 블록 제거 → readTree → 재직렬화 → Map 으로 다시 읽기 → 캐스팅,
+ *   결제일은 호출마다 포맷터 배열을 만들고 예외로 다음 형식 시도
+ * - ReceiptAnalysisReader: 공유 ObjectReader 로 한 번에 ReceiptAnalysis 변환
+ *
+ * JMH 의존성 없이 워밍업 후 반복 측정하는 간이 벤치마크이며 일반 test 에서는 제외됨
+ * ./gradlew benchmark
+ */
+@Tag("benchmark")
+@DisplayName("영수증 응답 파싱 벤치마크")
+class ReceiptAnalysisReaderBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+
+    private static final String RESPONSE = """
+        ```json
+        {
+          "placeName": "Starbucks Shibuya",
+          "amount": "1,280",
+          "currency": "JPY",
+          "paidAt": "2024-01-15",
+          "address": "2-24-1 Dogenzaka, Shibuya, Tokyo, Japan",
+          "latitude": 35.6595,
+          "longitude": 139.7005
+        }
+        ```
+        """;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ReceiptAnalysisReader reader = new ReceiptAnalysisReader(objectMapper);
+
+    @Test
+    @DisplayName("기존 Map 파싱과 ReceiptAnalysisReader 의 1건당 비용 비교")
+    void parseCostPerReceipt() {
+        Result legacy = measure("기존 방식 (Map)", this::legacyParse);
+        Result typed = measure("ReceiptAnalysisReader", text -> reader.read(text).orElseThrow());
+
+        System.out.println("========================================");
+        System.out.println(legacy);
+        System.out.println(typed);
+        System.out.println("========================================");
+        assertThat(reader.read(RESPONSE).orElseThrow().amount()).isEqualByComparingTo("1280");
+    }
+
+    private Result measure(String name, Function<String, Object> parse) {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = parse.apply(RESPONSE);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink = parse.apply(RESPONSE);
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        assertThat(sink).isNotNull();
+        return new Result(name, elapsed / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    // 변경 전 GeminiService.parseAnalysis + ReceiptService.saveReceiptFromAnalysis 의 변환 과정
+    private Object legacyParse(String result) {
+        try {
+            String cleanedJson = result.trim();
+            if (cleanedJson.startsWith("```json")) {
+                cleanedJson = cleanedJson.substring(7);
+            }
+            if (cleanedJson.startsWith("```")) {
+                cleanedJson = cleanedJson.substring(3);
+            }
+            if (cleanedJson.endsWith("```")) {
+                cleanedJson = cleanedJson.substring(0, cleanedJson.length() - 3);
+            }
+            JsonNode node = objectMapper.readTree(cleanedJson.trim());
+            String json = objectMapper.writeValueAsString(node);
+            Map<String, Object> data = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+
+            Object amountObj = data.get("amount");
+            int amount = 0;
+            if (amountObj instanceof Number number) {
+                amount = number.intValue();
+            } else if (amountObj instanceof String text) {
+                try {
+                    amount = (int) Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    // 기존 코드와 같이 0 사용
+                }
+            }
+            return new Object[]{data, amount, legacyPaidAt(data.get("paidAt"))};
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private LocalDateTime legacyPaidAt(Object paidAtObj) {
+        String paidAtStr = paidAtObj.toString();
+        DateTimeFormatter[] formatters = {
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd")
+        };
+        for (DateTimeFormatter formatter : formatters) {
+            try {
+                if (paidAtStr.contains("T")) {
+                    return LocalDateTime.parse(paidAtStr, formatter);
+                } else {
+                    return LocalDate.parse(paidAtStr, formatter).atStartOfDay();
+                }
+            } catch (DateTimeParseException e) {
+                // 다음 형식 시도
+            }
+        }
+        return LocalDateTime.now();
+    }
+
+    private record Result(String name, long nanosPerOp, long bytesPerOp) {
+
+        @Override
+        public String toString() {
+            return String.format("%-24s %,8d ns/op %,10d B/op", name, nanosPerOp, bytesPerOp);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.retripbackend.ai.service;
+
+import com.example.retripbackend.ai.dto.ReceiptAnalysis;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReceiptAnalysisReader 테스트")
+class ReceiptAnalysisReaderTest {
+
+    // 애플리케이션과 같은 설정의 ObjectMapper (JavaTimeModule 등)
+    private final ReceiptAnalysisReader reader = new ReceiptAnalysisReader(Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    @DisplayName("코드 블록으로 감싼 응답과 문자열 금액/날짜만 있는 결제일을 읽음")
+    void read_FencedResponseWithStringAmount() {
+        // given
+        String text = """
+            ```json
+            {"placeName": "Lawson", "amount": "¥1,500", "currency": "JPY", "paidAt": "2024-01-15",
+             "address": "Tokyo, Japan", "latitude": "35.68", "longitude": null, "confidence": 0.9}
+            ```
+            """;
+
+        // when
+        Optional<ReceiptAnalysis> analysis = reader.read(text);
+
+        // then
+        assertThat(analysis).isPresent();
+        assertThat(analysis.get().placeName()).isEqualTo("Lawson");
+        assertThat(analysis.get().amount()).isEqualByComparingTo("1500");
+        assertThat(analysis.get().paidAt()).isEqualTo(LocalDateTime.of(2024, 1, 15, 0, 0));
+        assertThat(analysis.get().latitude()).isEqualTo(35.68);
+        assertThat(analysis.get().longitude()).isNull();
+    }
+
+    @Test
+    @DisplayName("공백으로 구분한 일시와 시간대가 붙은 일시를 읽음")
+    void read_DateTimeVariants() {
+        assertThat(reader.read("{\"paidAt\": \"2024-01-15 14:30\"}").orElseThrow().paidAt())
+            .isEqualTo(LocalDateTime.of(2024, 1, 15, 14, 30));
+        assertThat(reader.read("{\"paidAt\": \"2024-01-15T14:30:05Z\"}").orElseThrow().paidAt())
+            .isEqualTo(LocalDateTime.of(2024, 1, 15, 14, 30, 5));
+    }
+
+    @Test
+    @DisplayName("읽을 수 없는 값은 예외 없이 null")
+    void read_InvalidValuesBecomeNull() {
+        // when
+        ReceiptAnalysis analysis = reader.read("{\"amount\": \"unknown\", \"paidAt\": \"15/01/2024\"}").orElseThrow();
+
+        // then
+        assertThat(analysis.amount()).isNull();
+        assertThat(analysis.paidAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("JSON 객체가 아닌 응답은 empty")
+    void read_NotJson() {
+        assertThat(reader.read("영수증을 인식할 수 없습니다.")).isEmpty();
+        assertThat(reader.read("{ broken")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("저장한 JSON을 다시 읽으면 같은 결과")
+    void writeThenRead_RoundTrip() {
+        // given
+        ReceiptAnalysis analysis = new ReceiptAnalysis("Starbucks", new BigDecimal("12.50"), "USD",
+            LocalDateTime.of(2024, 3, 2, 10, 5), "New York, USA", null, 40.71, -74.0);
+
+        // when
+        String json = reader.write(analysis);
+
+        // then
+        assertThat(json).contains("\"paidAt\":\"2024-03-02T10:05:00\"");
+        assertThat(reader.read(json)).contains(analysis);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.retripbackend.ai.service;
+
+import com.example.retripbackend.ai.service.ReceiptImagePreprocessor.PreparedImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import javax.imageio.ImageIO;
+
+import static com.example.retripbackend.SNS.service.ExifJpegFixtures.isBlue;
+import static com.example.retripbackend.SNS.service.ExifJpegFixtures.isRed;
+import static com.example.retripbackend.SNS.service.ExifJpegFixtures.orientedJpeg;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReceiptImagePreprocessor EXIF 방향 테스트")
+class ReceiptImagePreprocessorTest {
+
+    private final ReceiptImagePreprocessor preprocessor = new ReceiptImagePreprocessor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(preprocessor, "maxDimension", 1600);
+        ReflectionTestUtils.setField(preprocessor, "jpegQuality", 0.9f);
+    }
+
+    @Test
+    @DisplayName("작은 JPEG라도 Orientation 이 있으면 돌린 이미지를 보냄")
+    void prepare_RotatesSmallJpeg() throws IOException {
+        // given: 가로 64 x 세로 32, 왼쪽 빨강 / 오른쪽 파랑, 시계 방향 90도 회전 필요
+        byte[] image = orientedJpeg(64, 32, 6, ByteOrder.BIG_ENDIAN);
+
+        // when
+        PreparedImage prepared = preprocessor.prepare(image);
+
+        // then: 세로 이미지, 왼쪽(빨강)이 위
+        BufferedImage sent = ImageIO.read(new ByteArrayInputStream(prepared.data()));
+        assertThat(prepared.mimeType()).isEqualTo(ReceiptImagePreprocessor.JPEG);
+        assertThat(sent.getWidth()).isEqualTo(32);
+        assertThat(sent.getHeight()).isEqualTo(64);
+        assertThat(isRed(sent.getRGB(16, 8))).isTrue();
+        assertThat(isBlue(sent.getRGB(16, 56))).isTrue();
+    }
+
+    @Test
+    @DisplayName("큰 이미지는 회전한 뒤 긴 변을 max-dimension 에 맞춤")
+    void prepare_RotatesBeforeResize() throws IOException {
+        // given: 시계 방향 270도 회전 필요 (little-endian EXIF)
+        ReflectionTestUtils.setField(preprocessor, "maxDimension", 100);
+        byte[] image = orientedJpeg(400, 200, 8, ByteOrder.LITTLE_ENDIAN);
+
+        // when
+        PreparedImage prepared = preprocessor.prepare(image);
+
+        // then: 세로 50 x 100, 오른쪽(파랑)이 위
+        BufferedImage sent = ImageIO.read(new ByteArrayInputStream(prepared.data()));
+        assertThat(sent.getWidth()).isEqualTo(50);
+        assertThat(sent.getHeight()).isEqualTo(100);
+        assertThat(isBlue(sent.getRGB(25, 10))).isTrue();
+        assertThat(isRed(sent.getRGB(25, 90))).isTrue();
+    }
+}
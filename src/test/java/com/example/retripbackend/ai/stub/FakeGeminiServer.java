@@ -0,0 +1,186 @@
+package com.example.retripbackend.ai.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 로컬 가짜 Gemini 서버 (generateContent)
+ * 실제 쿼터를 쓰지 않고 영수증 분석 파이프라인 전체를 부하 테스트하기 위한 대역
+ * - 지연 시간: 중앙값/p99 를 맞춘 로그 정규 분포
+ * - errorRate 비율로 500, rateLimitRate 비율로 429 응답
+ * - 정상 응답은 준비된 영수증 JSON 을 돌아가며 Gemini 응답 형식(candidates[0].content.parts[0].text)으로 감싸서 반환
+ * 애플리케이션에서는 gemini.base-url 을 baseUrl() 로 지정해서 사용
+ *
+ * 단독 실행: FakeGeminiServer.main (인자: 포트, 중앙값 ms, p99 ms, 오류율, 429 비율)
+ */
+public class FakeGeminiServer implements AutoCloseable {
+
+    // 표준 정규 분포의 99 백분위수
+    private static final double Z_99 = 2.326;
+
+    private static final List<Map<String, Object>> DEFAULT_RESPONSES = List.of(
+        Map.of("placeName", "Starbucks Shibuya", "amount", 1280, "currency", "JPY",
+            "paidAt", "2024-01-15T14:30:00", "address", "Shibuya, Tokyo, Japan",
+            "latitude", 35.6595, "longitude", 139.7005),
+        Map.of("placeName", "Carrefour Market", "amount", 23.47, "currency", "EUR",
+            "paidAt", "2024-03-02T10:05:00", "address", "Rue de Rivoli, Paris, France",
+            "latitude", 48.8566, "longitude", 2.3522),
+        Map.of("placeName", "7-Eleven Sukhumvit", "amount", 145.5, "currency", "THB",
+            "paidAt", "2024-05-20", "address", "Sukhumvit Rd, Bangkok, Thailand"),
+        Map.of("placeName", "스타벅스 강남점", "amount", 11500, "currency", "KRW",
+            "paidAt", "2024-07-08T09:12:00", "address", "서울특별시 강남구 강남대로 390",
+            "latitude", 37.4979, "longitude", 127.0276));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private long latencyMedianMs = 1500;
+    private long latencyP99Ms = 6000;
+    private double errorRate;
+    private double rateLimitRate;
+    private List<byte[]> responses;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public FakeGeminiServer() {
+        cannedResponses(DEFAULT_RESPONSES);
+    }
+
+    // 응답 지연 분포 (중앙값, p99)
+    public FakeGeminiServer latency(long medianMs, long p99Ms) {
+        this.latencyMedianMs = medianMs;
+        this.latencyP99Ms = Math.max(medianMs, p99Ms);
+        return this;
+    }
+
+    // 500 응답 비율 (0 ~ 1)
+    public FakeGeminiServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    // 429 응답 비율 (0 ~ 1)
+    public FakeGeminiServer rateLimitRate(double rateLimitRate) {
+        this.rateLimitRate = rateLimitRate;
+        return this;
+    }
+
+    // 정상 응답으로 돌려줄 영수증 분석 결과들 (요청마다 순서대로 사용)
+    public FakeGeminiServer cannedResponses(List<Map<String, Object>> receipts) {
+        this.responses = receipts.stream()
+            .map(this::toGeminiResponse)
+            .toList();
+        return this;
+    }
+
+    /**
+     * 서버 시작
+     * @param port 0 이면 빈 포트 사용
+     */
+    public FakeGeminiServer start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        // 지연은 sleep 으로 흉내내므로 요청마다 가상 스레드 사용
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/v1/models/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            if (!"POST".equals(exchange.getRequestMethod())
+                || !exchange.getRequestURI().getPath().endsWith(":generateContent")) {
+                respond(exchange, 404, error(404, "NOT_FOUND"));
+                return;
+            }
+            // 실제 서버처럼 본문을 끝까지 받은 뒤 응답
+            body.transferTo(OutputStream.nullOutputStream());
+            long index = requestCount.getAndIncrement();
+
+            Thread.sleep(sampleLatencyMs());
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < rateLimitRate) {
+                respond(exchange, 429, error(429, "RESOURCE_EXHAUSTED"));
+            } else if (roll < rateLimitRate + errorRate) {
+                respond(exchange, 500, error(500, "INTERNAL"));
+            } else {
+                respond(exchange, 200, responses.get((int) (index % responses.size())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 로그 정규 분포: 중앙값 = e^mu, p99 = e^(mu + 2.326 sigma)
+    private long sampleLatencyMs() {
+        if (latencyMedianMs <= 0) {
+            return 0;
+        }
+        double sigma = Math.log((double) latencyP99Ms / latencyMedianMs) / Z_99;
+        double sample = latencyMedianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return Math.round(sample);
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    // 모델이 코드 블록으로 감싸서 답하는 경우도 흉내냄
+    private byte[] toGeminiResponse(Map<String, Object> receipt) {
+        try {
+            String text = "```json\n" + objectMapper.writeValueAsString(receipt) + "\n```";
+            return objectMapper.writeValueAsBytes(Map.of("candidates", List.of(
+                Map.of("content", Map.of("role", "model", "parts", List.of(Map.of("text", text)))))));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("가짜 응답 생성 실패", e);
+        }
+    }
+
+    private byte[] error(int code, String status) {
+        return ("{\"error\":{\"code\":" + code + ",\"message\":\"fake " + status + "\",\"status\":\"" + status + "\"}}")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        FakeGeminiServer server = new FakeGeminiServer()
+            .latency(args.length > 1 ? Long.parseLong(args[1]) : 1500, args.length > 2 ? Long.parseLong(args[2]) : 6000)
+            .errorRate(args.length > 3 ? Double.parseDouble(args[3]) : 0)
+            .rateLimitRate(args.length > 4 ? Double.parseDouble(args[4]) : 0)
+            .start(port);
+        System.out.println("FakeGeminiServer 시작: " + server.baseUrl() + " (gemini.base-url 로 지정)");
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.retripbackend.receipt.repository;
+
+import com.example.retripbackend.SNS.entity.Travel;
+import com.example.retripbackend.config.JpaConfig;
+import com.example.retripbackend.receipt.dto.TravelLedgerSummary;
+import com.example.retripbackend.receipt.entity.Receipt;
+import com.example.retripbackend.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(JpaConfig.class) // createdAt 자동 저장 (Auditing)
+@DisplayName("ReceiptRepository 가계부 집계 테스트")
+class ReceiptRepositoryTest {
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Travel tokyo;
+    private Travel paris;
+    private Travel empty;
+
+    @BeforeEach
+    void setUp() {
+        user = User.of("ledger@retrip.com", "password", "ledger");
+        entityManager.persist(user);
+
+        tokyo = persistTravel("Tokyo");
+        paris = persistTravel("Paris");
+        empty = persistTravel("Seoul");
+
+        // 도쿄: JPY 2건, KRW 1건 (가장 최근 결제는 KRW) → 가장 많이 쓰인 JPY
+        persistReceipt(tokyo, 1000, "JPY", LocalDateTime.of(2024, 1, 1, 10, 0));
+        persistReceipt(tokyo, 2000, "JPY", LocalDateTime.of(2024, 1, 2, 10, 0));
+        persistReceipt(tokyo, 500, "KRW", LocalDateTime.of(2024, 1, 3, 10, 0));
+        // 파리: EUR 1건, USD 1건, 통화 없음 1건 → 같은 건수면 최근 결제 통화 USD
+        persistReceipt(paris, 30, "EUR", LocalDateTime.of(2024, 2, 1, 10, 0));
+        persistReceipt(paris, 20, "USD", LocalDateTime.of(2024, 2, 2, 10, 0));
+        persistReceipt(paris, 10, null, LocalDateTime.of(2024, 2, 3, 10, 0));
+
+        // 다른 사용자의 여행은 포함되지 않아야 함
+        User other = User.of("other@retrip.com", "password", "other");
+        entityManager.persist(other);
+        entityManager.persist(Travel.builder()
+            .user(other)
+            .country("Japan")
+            .city("Osaka")
+            .title("다른 사용자 여행")
+            .startDate(LocalDate.of(2024, 1, 1))
+            .endDate(LocalDate.of(2024, 1, 5))
+            .build());
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("사용자의 전체 여행 집계를 쿼리 1회로 조회")
+    void findLedgerSummariesByUser_SingleStatement() {
+        // given
+        Statistics statistics = statistics();
+
+        // when
+        Map<Long, TravelLedgerSummary> ledgers = receiptRepository.findLedgerSummariesByUser(user).stream()
+            .collect(Collectors.toMap(TravelLedgerSummary::travelId, Function.identity()));
+
+        // then
+        assertThat(ledgers).containsOnlyKeys(tokyo.getTravelId(), paris.getTravelId(), empty.getTravelId());
+        assertThat(ledgers.get(tokyo.getTravelId()))
+            .isEqualTo(new TravelLedgerSummary(tokyo.getTravelId(), 3500, "JPY", 3));
+        assertThat(ledgers.get(paris.getTravelId()))
+            .isEqualTo(new TravelLedgerSummary(paris.getTravelId(), 60, "USD", 3));
+        assertThat(ledgers.get(empty.getTravelId()))
+            .isEqualTo(new TravelLedgerSummary(empty.getTravelId(), 0, null, 0));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Travel persistTravel(String city) {
+        Travel travel = Travel.builder()
+            .user(user)
+            .country("Country")
+            .city(city)
+            .title(city + " 여행")
+            .startDate(LocalDate.of(2024, 1, 1))
+            .endDate(LocalDate.of(2024, 1, 5))
+            .build();
+        entityManager.persist(travel);
+        return travel;
+    }
+
+    private void persistReceipt(Travel travel, int amount, String currency, LocalDateTime paidAt) {
+        entityManager.persist(Receipt.builder()
+            .travel(travel)
+            .storeName("store")
+            .amount(amount)
+            .currency(currency)
+            .paidAt(paidAt)
+            .build());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}